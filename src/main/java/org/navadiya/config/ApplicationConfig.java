@@ -2,67 +2,94 @@ package org.navadiya.config;
 
 import java.io.File;
 import java.io.InputStream;
-import java.util.Arrays;
 import java.util.Properties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Simple properties loader for test configuration. Reads from test resources application.properties
- * and environments.properties located on the classpath.
+ * and environments.properties located on the classpath. The resolved values are held in an immutable
+ * {@link ConfigSnapshot} built once; getters read its pre-parsed fields and {@link #reload()} swaps in a
+ * fresh snapshot (e.g. after changing System properties). When a {@link ConfigScope} is bound to the
+ * calling thread (suite, test or thread layer), its snapshot is used instead of the global one.
  */
 public class ApplicationConfig {
-    private static final Properties PROPS = new Properties();
-    private static final Properties ENVS = new Properties();
     private static final Logger log = LoggerFactory.getLogger(ApplicationConfig.class);
 
-    static {
-        try (InputStream in = ApplicationConfig.class.getClassLoader().getResourceAsStream("application.properties")) {
-            if (in != null) PROPS.load(in);
-        } catch (Exception ignored) {}
-        try (InputStream in = ApplicationConfig.class.getClassLoader().getResourceAsStream("environments.properties")) {
-            if (in != null) ENVS.load(in);
+    private static volatile ConfigSnapshot global = load();
+
+    /** Values are resolved in the snapshot; System properties are only read, never written. */
+    private static ConfigSnapshot load() {
+        return ConfigSnapshot.of(read("application.properties"), read("environments.properties"), System.getProperties());
+    }
+
+    private static Properties read(String resource) {
+        Properties props = new Properties();
+        try (InputStream in = ApplicationConfig.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) props.load(in);
         } catch (Exception ignored) {}
+        return props;
+    }
 
-        // Apply values from application.properties and environments.properties as default System properties
-        try {
-            applyPropertiesToSystem();
-        } catch (Exception e) {
-            log.warn("Failed to apply properties to System properties", e);
-        }
+    /** The configuration in effect on the current thread: its bound scope's snapshot, else the global one. */
+    public static ConfigSnapshot snapshot() {
+        ConfigScope scope = ConfigScope.active();
+        return scope != null ? scope.snapshot() : global;
+    }
+
+    /** The global (unscoped) configuration. */
+    public static ConfigSnapshot globalSnapshot() {
+        return global;
+    }
+
+    /**
+     * Re-read the property files and System properties and atomically replace the global snapshot. Readers
+     * see either the old or the new snapshot, never a mix; existing scopes keep the values they derived.
+     */
+    public static ConfigSnapshot reload() {
+        ConfigSnapshot fresh = load();
+        global = fresh;
+        log.info("Configuration reloaded (env={}, browsers={})", fresh.env(), fresh.browsers());
+        return fresh;
     }
 
     /**
      * Apply properties from application.properties and the active environment section of
      * environments.properties to System properties if they are not already set.
      * This provides defaults that can be overridden by -D system properties or environment variables.
+     *
+     * @deprecated configuration is resolved per scope without writing System properties; only call this
+     * for third-party code that reads System properties directly. Values it sets become process-global.
      */
+    @Deprecated
     public static void applyPropertiesToSystem() {
+        applyPropertiesToSystem(read("application.properties"), read("environments.properties"));
+    }
+
+    private static void applyPropertiesToSystem(Properties props, Properties envs) {
         // apply application.properties entries
-        for (String key : PROPS.stringPropertyNames()) {
+        for (String key : props.stringPropertyNames()) {
             String current = System.getProperty(key);
             if (current == null) {
-                String val = PROPS.getProperty(key);
+                String val = props.getProperty(key);
                 if (val != null && !val.isEmpty()) {
                     System.setProperty(key, val);
-//                    log.info("System property set from application.properties: " + key + "=" + val);
                 }
             } else {
                 log.debug("System property already set, skipping: {} (value={})", key, current);
             }
         }
 
-
         // apply environment-specific properties (like QA.app.url -> app.url)
-        String activeEnv = System.getProperty("app.env.default", getEnv());
-        for (String fullKey : ENVS.stringPropertyNames()) {
+        String activeEnv = System.getProperty("app.env.default", props.getProperty("app.env.default"));
+        if (activeEnv == null) return;
+        for (String fullKey : envs.stringPropertyNames()) {
             if (fullKey.startsWith(activeEnv + ".")) {
                 String key = fullKey.substring(activeEnv.length() + 1);
                 if (System.getProperty(key) == null) {
-                    String val = ENVS.getProperty(fullKey);
+                    String val = envs.getProperty(fullKey);
                     if (val != null && !val.isEmpty()) {
                         System.setProperty(key, val);
-//                        log.info("System property set from environments.properties [{}]: {}={}", activeEnv, key, val);
                     }
                 } else {
                     log.debug("System property already set, skipping env-mapped key: {}", key);
@@ -72,70 +99,64 @@ public class ApplicationConfig {
     }
 
     public static String getProperty(String key) {
-        String val = System.getProperty(key);
-        if (val != null) return val;
-        return PROPS.getProperty(key);
+        return snapshot().get(key);
     }
 
     public static String getEnv() {
-        String e = System.getProperty("app.env.default");
-        if (e != null) return e;
-        return PROPS.getProperty("app.env.default");
+        return snapshot().env();
     }
 
     public static String[] getBrowsers() {
-        String b = System.getProperty("app.browsers");
-        if (b == null || b.isEmpty()) b = PROPS.getProperty("app.browsers");
-        return Arrays.stream(b.split(",")).map(String::trim).toArray(String[]::new);
+        return snapshot().browsers().toArray(String[]::new);
     }
 
     public static boolean isParallelEnabled() {
-        String p = System.getProperty("app.parallel.enabled");
-        if (p == null) p = System.getProperty("app.parallel.enabled");
-        if (p == null) p = PROPS.getProperty("app.parallel.enabled", "false");
-        return Boolean.parseBoolean(p);
+        return snapshot().parallelEnabled();
+    }
+
+    /** Default explicit/element wait timeout in seconds (app.timeout.seconds). Defaults to 15. */
+    public static int getTimeoutSeconds() {
+        return snapshot().timeoutSeconds();
     }
 
     public static int getThreadCount() {
-        String t = System.getProperty("app.parallel.threads");
-        if (t == null) t = System.getProperty("app.parallel.threads");
-        if (t == null) t = PROPS.getProperty("app.parallel.threads", "1");
-        try { return Integer.parseInt(t); } catch (Exception e) { return 1; }
+        return snapshot().threadCount();
     }
 
     public static int getRerunAttempts() {
-        String r = System.getProperty("app.rerun.attempts");
-        if (r == null) r = System.getProperty("app.rerun.attempts");
-        if (r == null) r = PROPS.getProperty("app.rerun.attempts", "0");
-        try { return Integer.parseInt(r); } catch (Exception e) { return 0; }
+        return snapshot().rerunAttempts();
+    }
+
+    /**
+     * Whether retryable failures (infrastructure, timeout, stale element) are rerun in batched passes at the end
+     * of each suite instead of immediately by RetryAnalyzer. Defaults to true.
+     */
+    public static boolean isRetryDeferred() {
+        return snapshot().retryDeferred();
+    }
+
+    /** Threads of the deferred rerun passes. Defaults to 1. */
+    public static int getRetryThreads() {
+        return snapshot().retryThreads();
     }
 
     public static String getSuiteTestClass() {
-        String c = System.getProperty("suite.test.class");
-        if (c == null) c = PROPS.getProperty("suite.test.class", "org.navadiya.tests.SampleTest");
-        return c;
+        return snapshot().suiteTestClass();
     }
 
     public static boolean isHeadless() {
-        String h = System.getProperty("app.headless");
-        if (h == null) h = System.getProperty("app.headless");
-        if (h == null) h = PROPS.getProperty("app.headless", "false");
-        return Boolean.parseBoolean(h);
+        return snapshot().headless();
     }
 
     public static String getEnvProperty(String key) {
-        String env = getEnv();
-        String val = ENVS.getProperty(env + "." + key);
-        if (val == null) val = ENVS.getProperty("QA." + key);
-        return val;
+        return snapshot().envProperty(key);
     }
 
     // --- Chrome profile configuration helpers ---
 
     /** Whether to launch Chrome using a persistent local user profile. */
     public static boolean isChromeProfileEnabled() {
-        String v = getProperty("chrome.profile.enabled");
-        return Boolean.parseBoolean(v);
+        return snapshot().chromeProfileEnabled();
     }
 
     /** Absolute path to Chrome user data directory (e.g., C:\\Users\\<you>\\AppData\\Local\\Google\\Chrome\\User Data). */
@@ -179,8 +200,175 @@ public class ApplicationConfig {
 
     /** Toggle to enable/disable Healenium self-healing. Defaults to false. */
     public static boolean isHealeniumEnabled() {
-        String v = getProperty("healenium.enabled");
-        if (v == null) return false;
-        return Boolean.parseBoolean(v);
+        return snapshot().healeniumEnabled();
+    }
+
+    // --- Screenshot configuration helpers ---
+
+    /** Whether Chromium sessions capture through DevTools Page.captureScreenshot. Defaults to true. */
+    public static boolean isCdpScreenshotEnabled() {
+        return snapshot().cdpScreenshotEnabled();
+    }
+
+    /** Image format for report screenshots: png, jpeg or webp. Defaults to png. */
+    public static String getScreenshotFormat() {
+        return snapshot().screenshotFormat();
+    }
+
+    /** Compression quality (1-100) used for jpeg/webp screenshots. Defaults to 80. */
+    public static int getScreenshotQuality() {
+        return snapshot().screenshotQuality();
+    }
+
+    // --- Failure replay configuration helpers ---
+
+    /** Whether a low-resolution frame ring buffer is recorded per session. Defaults to false. */
+    public static boolean isReplayEnabled() {
+        return snapshot().replayEnabled();
+    }
+
+    /** Delay between two replay frames in milliseconds. Defaults to 500. */
+    public static long getReplayIntervalMillis() {
+        return snapshot().replayIntervalMillis();
+    }
+
+    /** Seconds of history kept in the replay buffer. Defaults to 10. */
+    public static long getReplaySeconds() {
+        return snapshot().replaySeconds();
+    }
+
+    /** Upper bound on buffered frame bytes per session. Defaults to 8 MB. */
+    public static long getReplayMaxBytes() {
+        return snapshot().replayMaxBytes();
+    }
+
+    /** Width in pixels replay frames are scaled down to. Defaults to 640. */
+    public static int getReplayWidth() {
+        return snapshot().replayWidth();
+    }
+
+    /** JPEG quality (1-100) of buffered replay frames. Defaults to 50. */
+    public static int getReplayQuality() {
+        return snapshot().replayQuality();
+    }
+
+    /** Number of background threads shared by all frame recorders. Defaults to 1. */
+    public static int getReplayThreads() {
+        return snapshot().replayThreads();
+    }
+
+    // --- Metrics configuration helpers ---
+
+    /** Whether step, wait and driver command latencies are recorded. Defaults to true. */
+    public static boolean isMetricsEnabled() {
+        return snapshot().metricsEnabled();
+    }
+
+    /** Directory suite-end metric summaries are written to. Defaults to target/metrics. */
+    public static String getMetricsOutputDir() {
+        return snapshot().metricsOutputDir();
+    }
+
+    /** Number of entries listed in suite-end top-N reports. Defaults to 25. */
+    public static int getMetricsTopCount() {
+        return snapshot().metricsTopCount();
+    }
+
+    // --- Browser event capture helpers ---
+
+    /** Whether console and network events are captured over WebDriver BiDi. Defaults to false. */
+    public static boolean isBrowserEventsEnabled() {
+        return snapshot().browserEventsEnabled();
+    }
+
+    /** Maximum console errors / requests buffered per test. Defaults to 500. */
+    public static int getBrowserEventsMax() {
+        return snapshot().browserEventsMax();
+    }
+
+    // --- Wait engine helpers ---
+
+    /** Element wait engine: observer (in-page MutationObserver) or polling (WebDriverWait). Defaults to observer. */
+    public static String getWaitEngine() {
+        return snapshot().waitEngine();
+    }
+
+    /** CSS selectors of overlays that must be hidden before the page counts as ready. */
+    public static String[] getPageReadyOverlays() {
+        return snapshot().pageReadyOverlays().toArray(String[]::new);
+    }
+
+    /** Whether WebDriverWaits poll with history-aware backoff instead of a fixed interval. Defaults to true. */
+    public static boolean isAdaptivePollingEnabled() {
+        return snapshot().adaptivePollingEnabled();
+    }
+
+    /** Shortest sleep between two polls in milliseconds. Defaults to 25. */
+    public static long getPollingMinMillis() {
+        return snapshot().pollingMinMillis();
+    }
+
+    /** Longest sleep between two polls in milliseconds (the old fixed interval). Defaults to 500. */
+    public static long getPollingMaxMillis() {
+        return snapshot().pollingMaxMillis();
+    }
+
+    /** Whether page object elements reuse their resolved reference until navigation or staleness. Defaults to true. */
+    public static boolean isElementCacheEnabled() {
+        return snapshot().elementCacheEnabled();
+    }
+
+    /**
+     * Whether @FindBy XPath locators are rewritten into CSS / a script text finder at page init. Defaults to
+     * true; always off with Healenium, which heals from the original locator types.
+     */
+    public static boolean isLocatorOptimizationEnabled() {
+        return snapshot().locatorOptimizationEnabled();
+    }
+
+    // --- Test history and sharding helpers ---
+
+    /** File with per-test durations from previous runs, shared between shards. Defaults to .test-history/tests.tsv. */
+    public static String getHistoryFile() {
+        return snapshot().historyFile();
+    }
+
+    /** Whether each suite runs recently failed and flaky tests first, then long tests. Defaults to false. */
+    public static boolean isHistoryOrderingEnabled() {
+        return snapshot().historyOrderingEnabled();
+    }
+
+    /** Number of shards (processes or agents) the tests are split across. Defaults to 1 (no sharding). */
+    public static int getShardCount() {
+        return snapshot().shardCount();
+    }
+
+    /** Zero-based shard this process runs, below shard.count (SuiteRunner fails on other values). Defaults to 0. */
+    public static int getShardIndex() {
+        return snapshot().shardIndex();
+    }
+
+    // --- Test impact helpers ---
+
+    /** Git revision to select tests by changes since (e.g. origin/main), or null to run every test. */
+    public static String getImpactSince() {
+        return snapshot().impactSince();
+    }
+
+    /** Cache of the class dependency graph used for impact selection. Defaults to .test-history/dependency-graph.tsv. */
+    public static String getImpactGraphFile() {
+        return snapshot().impactGraphFile();
+    }
+
+    // --- Input helpers ---
+
+    /**
+     * Input speed profile (human, fast or instant) for the given browser: input.speed.&lt;browser&gt;, then
+     * input.speed (which can be set per environment, e.g. QA.input.speed). Defaults to human.
+     */
+    public static String getInputSpeed(String browser) {
+        String v = (browser == null) ? null : getProperty("input.speed." + browser.trim().toLowerCase());
+        if (v == null || v.isBlank()) v = getProperty("input.speed");
+        return (v == null || v.isBlank()) ? "human" : v.trim().toLowerCase();
     }
 }
@@ -0,0 +1,96 @@
+package org.navadiya.config;
+
+import java.util.Map;
+
+/**
+ * A named configuration layer: a {@link ConfigSnapshot} derived from its parent with a set of overrides.
+ * Layers nest global → suite → test → thread; the scope bound to the current thread decides what
+ * {@link ApplicationConfig} returns on that thread, so differently configured suites (env, browser,
+ * timeouts...) can run in parallel in one JVM without touching System properties.
+ *
+ * <pre>
+ * try (ConfigScope.Binding ignored = ConfigScope.open("slow-network", Map.of("app.timeout.seconds", "60"))) {
+ *     // ApplicationConfig.getTimeoutSeconds() == 60 on this thread only
+ * }
+ * </pre>
+ *
+ * Bindings are per thread and not inherited by threads the test starts. Scopes derive their snapshot
+ * when created, so an {@link ApplicationConfig#reload()} affects scopes created afterwards.
+ */
+public final class ConfigScope {
+
+    private static final ThreadLocal<ConfigScope> ACTIVE = new ThreadLocal<>();
+
+    private final String name;
+    private final ConfigScope parent;
+    private final ConfigSnapshot snapshot;
+
+    private ConfigScope(String name, ConfigScope parent, ConfigSnapshot snapshot) {
+        this.name = name;
+        this.parent = parent;
+        this.snapshot = snapshot;
+    }
+
+    /** Restores the previously bound scope on close. */
+    public static final class Binding implements AutoCloseable {
+        private final ConfigScope previous;
+        private boolean closed;
+
+        private Binding(ConfigScope previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            if (previous == null) ACTIVE.remove(); else ACTIVE.set(previous);
+        }
+    }
+
+    /** A scope directly below the global configuration. */
+    public static ConfigScope root(String name, Map<String, String> overrides) {
+        return new ConfigScope(name, null, ApplicationConfig.globalSnapshot().withOverrides(overrides));
+    }
+
+    /** A scope below this one; its overrides win over this scope's. */
+    public ConfigScope child(String name, Map<String, String> overrides) {
+        return new ConfigScope(name, this, snapshot.withOverrides(overrides));
+    }
+
+    /** The scope bound to the current thread, or null when the thread uses the global configuration. */
+    public static ConfigScope active() {
+        return ACTIVE.get();
+    }
+
+    /** Derive a scope from the current thread's scope (or the global configuration) and bind it. */
+    public static Binding open(String name, Map<String, String> overrides) {
+        ConfigScope current = ACTIVE.get();
+        return (current == null ? root(name, overrides) : current.child(name, overrides)).bind();
+    }
+
+    /** Make this scope the current thread's configuration until the returned binding is closed. */
+    public Binding bind() {
+        Binding binding = new Binding(ACTIVE.get());
+        ACTIVE.set(this);
+        return binding;
+    }
+
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Scope names from the outermost layer to this one, e.g. "chrome-suite > chrome-tests". */
+    public String path() {
+        return parent == null ? name : parent.path() + " > " + name;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigScope[" + path() + "]";
+    }
+}
@@ -0,0 +1,307 @@
+package org.navadiya.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Immutable, fully resolved configuration: application.properties, the active section of
+ * environments.properties and System properties (-D) merged once, and every typed setting parsed and
+ * validated up front. Invalid values are logged once and replaced by their default, so reads are plain
+ * field loads. Built and swapped by {@link ApplicationConfig#reload()}; {@link ConfigScope}s derive
+ * snapshots with overrides via {@link #withOverrides(Map)}.
+ * <p>
+ * Precedence (highest first): scope overrides, System properties, application.properties, the active
+ * environment section (e.g. QA.app.url for app.url). An app.env.default override switches the section.
+ */
+public final class ConfigSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+    private static final Set<String> WAIT_ENGINES = Set.of("observer", "polling");
+    private static final Set<String> SCREENSHOT_FORMATS = Set.of("png", "jpeg", "webp");
+
+    private final Map<String, String> application;
+    private final Map<String, String> environments;
+    private final Map<String, String> system;
+    private final Map<String, String> overrides;
+    private final Map<String, String> values;
+    private final List<String> problems = new ArrayList<>();
+
+    private final String env;
+    private final List<String> browsers;
+    private final boolean parallelEnabled;
+    private final int threadCount;
+    private final int rerunAttempts;
+    private final boolean retryDeferred;
+    private final int retryThreads;
+    private final String suiteTestClass;
+    private final boolean headless;
+    private final int timeoutSeconds;
+
+    private final boolean chromeProfileEnabled;
+    private final boolean healeniumEnabled;
+
+    private final boolean cdpScreenshotEnabled;
+    private final String screenshotFormat;
+    private final int screenshotQuality;
+
+    private final boolean replayEnabled;
+    private final long replayIntervalMillis;
+    private final long replaySeconds;
+    private final long replayMaxBytes;
+    private final int replayWidth;
+    private final int replayQuality;
+    private final int replayThreads;
+
+    private final boolean metricsEnabled;
+    private final String metricsOutputDir;
+    private final int metricsTopCount;
+
+    private final boolean browserEventsEnabled;
+    private final int browserEventsMax;
+
+    private final String waitEngine;
+    private final List<String> pageReadyOverlays;
+    private final boolean adaptivePollingEnabled;
+    private final long pollingMinMillis;
+    private final long pollingMaxMillis;
+    private final boolean elementCacheEnabled;
+    private final boolean locatorOptimizationEnabled;
+
+    private final String historyFile;
+    private final boolean historyOrderingEnabled;
+    private final int shardCount;
+    private final int shardIndex;
+    private final String impactSince;
+    private final String impactGraphFile;
+
+    private ConfigSnapshot(Map<String, String> application, Map<String, String> environments,
+                           Map<String, String> system, Map<String, String> overrides) {
+        this.application = application;
+        this.environments = environments;
+        this.system = system;
+        this.overrides = overrides;
+        this.values = merge(application, environments, system, overrides);
+
+        env = string("app.env.default", null);
+        browsers = list("app.browsers", List.of("chrome"));
+        parallelEnabled = bool("app.parallel.enabled", false);
+        threadCount = (int) number("app.parallel.threads", 1, 1, 1_000);
+        rerunAttempts = (int) number("app.rerun.attempts", 0, 0, 100);
+        retryDeferred = bool("retry.deferred", true);
+        retryThreads = (int) number("retry.threads", 1, 1, 1_000);
+        suiteTestClass = string("suite.test.class", "org.navadiya.tests.SampleTest");
+        headless = bool("app.headless", false);
+        timeoutSeconds = (int) number("app.timeout.seconds", 15, 1, 3_600);
+
+        chromeProfileEnabled = bool("chrome.profile.enabled", false);
+        healeniumEnabled = bool("healenium.enabled", false);
+
+        cdpScreenshotEnabled = bool("screenshot.cdp.enabled", true);
+        screenshotFormat = choice("screenshot.format", "png", SCREENSHOT_FORMATS);
+        screenshotQuality = (int) number("screenshot.quality", 80, 1, 100);
+
+        replayEnabled = bool("replay.enabled", false);
+        replayIntervalMillis = number("replay.interval.ms", 500, 50, Long.MAX_VALUE);
+        replaySeconds = number("replay.seconds", 10, 1, Long.MAX_VALUE);
+        replayMaxBytes = number("replay.max.bytes", 8L * 1024 * 1024, 64L * 1024, Long.MAX_VALUE);
+        replayWidth = (int) number("replay.width", 640, 64, 10_000);
+        replayQuality = (int) number("replay.quality", 50, 1, 100);
+        replayThreads = (int) number("replay.threads", 1, 1, 64);
+
+        metricsEnabled = bool("metrics.enabled", true);
+        metricsOutputDir = string("metrics.output.dir", "target/metrics");
+        metricsTopCount = (int) number("metrics.top.count", 25, 1, 10_000);
+
+        browserEventsEnabled = bool("browser.events.enabled", false);
+        browserEventsMax = (int) number("browser.events.max", 500, 10, 1_000_000);
+
+        waitEngine = choice("wait.engine", "observer", WAIT_ENGINES);
+        pageReadyOverlays = values.get("page.ready.overlays") == null
+                ? List.of("#captchaModalOverlay", ".captcha-overlay")
+                : list("page.ready.overlays", List.of());
+        adaptivePollingEnabled = bool("wait.polling.adaptive", true);
+        pollingMinMillis = number("wait.polling.min.ms", 25, 1, 60_000);
+        pollingMaxMillis = number("wait.polling.max.ms", 500, 1, 60_000);
+        elementCacheEnabled = bool("element.cache.enabled", true);
+        // Healenium heals from the original locator types, so rewriting them is always off with it
+        locatorOptimizationEnabled = !healeniumEnabled && bool("locator.optimize", true);
+
+        historyFile = string("history.file", ".test-history/tests.tsv");
+        historyOrderingEnabled = bool("history.ordering.enabled", false);
+        shardCount = (int) number("shard.count", 1, 1, 1_000);
+        // not clamped: running another shard's tests would silently skip this one's, SuiteRunner rejects it
+        shardIndex = (int) number("shard.index", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        impactSince = string("impact.since", null);
+        impactGraphFile = string("impact.graph.file", ".test-history/dependency-graph.tsv");
+
+        for (String problem : problems) log.warn("Invalid configuration: {}", problem);
+    }
+
+    /** Snapshot of the given sources without overrides. */
+    public static ConfigSnapshot of(Properties application, Properties environments, Properties system) {
+        return new ConfigSnapshot(toMap(application), toMap(environments), toMap(system), Map.of());
+    }
+
+    /** A snapshot of the same sources with overrides applied on top of this snapshot's own overrides. */
+    public ConfigSnapshot withOverrides(Map<String, String> more) {
+        if (more.isEmpty()) return this;
+        Map<String, String> combined = new HashMap<>(overrides);
+        combined.putAll(more);
+        return new ConfigSnapshot(application, environments, system, Map.copyOf(combined));
+    }
+
+    /**
+     * Empty application.properties values do not hide an environment value, but are still visible through
+     * {@link #get(String)} when nothing else sets the key.
+     */
+    private static Map<String, String> merge(Map<String, String> application, Map<String, String> environments,
+                                             Map<String, String> system, Map<String, String> overrides) {
+        Map<String, String> merged = new HashMap<>(application);
+        String env = overrides.getOrDefault("app.env.default", system.getOrDefault("app.env.default", application.get("app.env.default")));
+        if (env != null) {
+            String prefix = env + ".";
+            environments.forEach((fullKey, value) -> {
+                if (!fullKey.startsWith(prefix) || value.isEmpty()) return;
+                String key = fullKey.substring(prefix.length());
+                String current = merged.get(key);
+                if (current == null || current.isEmpty()) merged.put(key, value);
+            });
+        }
+        merged.putAll(system);
+        merged.putAll(overrides);
+        return Map.copyOf(merged);
+    }
+
+    private static Map<String, String> toMap(Properties props) {
+        Map<String, String> map = new HashMap<>();
+        for (String key : props.stringPropertyNames()) map.put(key, props.getProperty(key));
+        return Map.copyOf(map);
+    }
+
+    /** Overrides applied by scopes, on top of the file and System property values. */
+    public Map<String, String> overrides() {
+        return overrides;
+    }
+
+    /** Raw resolved value of key, or null. */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /** Value of key in environments.properties for the active environment, falling back to the QA section. */
+    public String envProperty(String key) {
+        String value = environments.get(env + "." + key);
+        return value != null ? value : environments.get("QA." + key);
+    }
+
+    /** Values that failed validation and were replaced by their defaults. */
+    public List<String> problems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    public String env() { return env; }
+    public List<String> browsers() { return browsers; }
+    public boolean parallelEnabled() { return parallelEnabled; }
+    public int threadCount() { return threadCount; }
+    public int rerunAttempts() { return rerunAttempts; }
+    public boolean retryDeferred() { return retryDeferred; }
+    public int retryThreads() { return retryThreads; }
+    public String suiteTestClass() { return suiteTestClass; }
+    public boolean headless() { return headless; }
+    public int timeoutSeconds() { return timeoutSeconds; }
+
+    public boolean chromeProfileEnabled() { return chromeProfileEnabled; }
+    public boolean healeniumEnabled() { return healeniumEnabled; }
+
+    public boolean cdpScreenshotEnabled() { return cdpScreenshotEnabled; }
+    public String screenshotFormat() { return screenshotFormat; }
+    public int screenshotQuality() { return screenshotQuality; }
+
+    public boolean replayEnabled() { return replayEnabled; }
+    public long replayIntervalMillis() { return replayIntervalMillis; }
+    public long replaySeconds() { return replaySeconds; }
+    public long replayMaxBytes() { return replayMaxBytes; }
+    public int replayWidth() { return replayWidth; }
+    public int replayQuality() { return replayQuality; }
+    public int replayThreads() { return replayThreads; }
+
+    public boolean metricsEnabled() { return metricsEnabled; }
+    public String metricsOutputDir() { return metricsOutputDir; }
+    public int metricsTopCount() { return metricsTopCount; }
+
+    public boolean browserEventsEnabled() { return browserEventsEnabled; }
+    public int browserEventsMax() { return browserEventsMax; }
+
+    public String waitEngine() { return waitEngine; }
+    public List<String> pageReadyOverlays() { return pageReadyOverlays; }
+    public boolean adaptivePollingEnabled() { return adaptivePollingEnabled; }
+    public long pollingMinMillis() { return pollingMinMillis; }
+    public long pollingMaxMillis() { return pollingMaxMillis; }
+    public boolean elementCacheEnabled() { return elementCacheEnabled; }
+    public boolean locatorOptimizationEnabled() { return locatorOptimizationEnabled; }
+
+    public String historyFile() { return historyFile; }
+    public boolean historyOrderingEnabled() { return historyOrderingEnabled; }
+    public int shardCount() { return shardCount; }
+    public int shardIndex() { return shardIndex; }
+    public String impactSince() { return impactSince; }
+    public String impactGraphFile() { return impactGraphFile; }
+
+    private String string(String key, String defaultValue) {
+        String v = values.get(key);
+        return (v == null || v.isBlank()) ? defaultValue : v.trim();
+    }
+
+    private boolean bool(String key, boolean defaultValue) {
+        String v = string(key, null);
+        if (v == null) return defaultValue;
+        if (!v.equalsIgnoreCase("true") && !v.equalsIgnoreCase("false")) {
+            problems.add(key + "=" + v + " is not a boolean, using " + defaultValue);
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(v);
+    }
+
+    private long number(String key, long defaultValue, long min, long max) {
+        String v = string(key, null);
+        if (v == null) return defaultValue;
+        try {
+            long n = Long.parseLong(v);
+            if (n < min || n > max) {
+                long clamped = Math.max(min, Math.min(max, n));
+                problems.add(key + "=" + v + " is outside [" + min + ", " + max + "], using " + clamped);
+                return clamped;
+            }
+            return n;
+        } catch (NumberFormatException e) {
+            problems.add(key + "=" + v + " is not a number, using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private String choice(String key, String defaultValue, Set<String> allowed) {
+        String v = string(key, null);
+        if (v == null) return defaultValue;
+        v = v.toLowerCase();
+        if (!allowed.contains(v)) {
+            problems.add(key + "=" + v + " is not one of " + allowed + ", using " + defaultValue);
+            return defaultValue;
+        }
+        return v;
+    }
+
+    private List<String> list(String key, List<String> defaultValue) {
+        String v = values.get(key);
+        if (v == null || v.isBlank()) return defaultValue;
+        return Arrays.stream(v.split(",")).map(String::trim).filter(x -> !x.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,309 @@
+package org.navadiya.discovery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Finds TestNG test classes by reading class files directly: the constant pool, access flags, superclass
+ * and the runtime-visible annotations of the class and its methods. Nothing is loaded or initialized,
+ * and class files are parsed in parallel. Superclasses outside the scanned package are read through the
+ * class loader's resources, so inherited {@code @Test} methods are found too.
+ */
+final class BytecodeScanner {
+    private static final Logger log = LoggerFactory.getLogger(BytecodeScanner.class);
+
+    private static final String TEST = "Lorg/testng/annotations/Test;";
+    private static final String TESTNG_ANNOTATIONS = "Lorg/testng/annotations/";
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+    /** A class type inside a descriptor or signature: Lpkg/Name; or Lpkg/Name&lt;...&gt;. */
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+)[;<]");
+
+    /** What the scanner needs from one class file. */
+    record ClassInfo(String name, String superName, int access, boolean classLevelTest,
+                     List<String> testMethods, List<String> publicMethods) {
+        boolean concrete() {
+            return (access & (ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION | ACC_ENUM)) == 0;
+        }
+    }
+
+    private BytecodeScanner() {}
+
+    /** Test classes in pkg and its subpackages on the java.class.path, with their test methods. */
+    static TestIndex scan(String pkg) {
+        String pkgPath = pkg.replace('.', '/');
+        List<byte[]> classFiles = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (entry.isBlank()) continue;
+            try {
+                collect(new File(entry), pkgPath, classFiles);
+            } catch (IOException | UncheckedIOException e) {
+                log.debug("Skipping classpath entry {}: {}", entry, e.getMessage());
+            }
+        }
+        Map<String, ClassInfo> scanned = new ConcurrentHashMap<>();
+        classFiles.parallelStream()
+                .map(BytecodeScanner::parseQuietly)
+                .filter(Objects::nonNull)
+                .forEach(info -> scanned.put(info.name(), info));
+
+        Map<String, ClassInfo> known = new HashMap<>(scanned);
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        for (ClassInfo info : scanned.values()) {
+            if (!info.concrete()) continue;
+            List<String> methods = testMethods(info, known);
+            if (!methods.isEmpty()) classes.put(info.name(), methods);
+        }
+        return new TestIndex(classes);
+    }
+
+    /** Declared and inherited test methods of className, or an empty list when it is not a concrete test class. */
+    static List<String> methodsOf(String className) {
+        ClassInfo info = read(className, new HashMap<>());
+        return info == null || !info.concrete() ? List.of() : testMethods(info, new HashMap<>());
+    }
+
+    private static void collect(File entry, String pkgPath, List<byte[]> into) throws IOException {
+        if (entry.isDirectory()) {
+            Path root = entry.toPath().resolve(pkgPath);
+            if (!Files.isDirectory(root)) return;
+            try (Stream<Path> walk = Files.walk(root)) {
+                List<Path> files = walk.filter(p -> p.toString().endsWith(".class") && isCandidate(p.getFileName().toString())).toList();
+                for (Path file : files) into.add(Files.readAllBytes(file));
+            }
+        } else if (entry.isFile() && entry.getName().endsWith(".jar")) {
+            try (JarFile jar = new JarFile(entry)) {
+                var entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry je = entries.nextElement();
+                    String name = je.getName();
+                    if (!name.startsWith(pkgPath) || !name.endsWith(".class")) continue;
+                    if (!isCandidate(name.substring(name.lastIndexOf('/') + 1))) continue;
+                    try (InputStream in = jar.getInputStream(je)) {
+                        into.add(in.readAllBytes());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Top-level classes only, like the previous discovery; module and package descriptors are skipped. */
+    private static boolean isCandidate(String fileName) {
+        return !fileName.contains("$") && !fileName.equals("module-info.class") && !fileName.equals("package-info.class");
+    }
+
+    /** Declared and inherited test methods of info, walking the superclass chain. */
+    private static List<String> testMethods(ClassInfo info, Map<String, ClassInfo> known) {
+        Set<String> methods = new LinkedHashSet<>();
+        for (ClassInfo c = info; c != null; c = superOf(c, known)) {
+            methods.addAll(c.testMethods());
+            if (c.classLevelTest()) methods.addAll(c.publicMethods());
+        }
+        return List.copyOf(methods);
+    }
+
+    private static ClassInfo superOf(ClassInfo info, Map<String, ClassInfo> known) {
+        String name = info.superName();
+        return name == null || name.equals("java.lang.Object") ? null : read(name, known);
+    }
+
+    private static ClassInfo read(String name, Map<String, ClassInfo> known) {
+        ClassInfo cached = known.get(name);
+        if (cached != null) return cached;
+        try (InputStream in = BytecodeScanner.class.getClassLoader().getResourceAsStream(name.replace('.', '/') + ".class")) {
+            if (in == null) return null;
+            ClassInfo parsed = parse(in.readAllBytes());
+            known.put(name, parsed);
+            return parsed;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ClassInfo parseQuietly(byte[] bytes) {
+        try {
+            return parse(bytes);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unreadable class file: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /** The UTF-8 strings and class entries of a class file's constant pool. */
+    private record ConstantPool(String[] utf8, int[] classNameIndex) {
+        String className(int index) {
+            return utf8[classNameIndex[index]].replace('/', '.');
+        }
+    }
+
+    private static ConstantPool readConstantPool(DataInputStream in) throws IOException {
+        if (in.readInt() != 0xCAFEBABE) throw new IOException("not a class file");
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNameIndex = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = in.readUTF();
+                case 7 -> classNameIndex[i] = in.readUnsignedShort();
+                case 8, 16, 19, 20 -> in.skipBytes(2);
+                case 15 -> in.skipBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                case 5, 6 -> {
+                    in.skipBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("unknown constant pool tag " + tag);
+            }
+        }
+        return new ConstantPool(utf8, classNameIndex);
+    }
+
+    /**
+     * Name of the class in bytes and the classes it refers to: class constants plus the types named in field,
+     * method and generic signatures and in annotations (constant-pool descriptors). Array types count as
+     * their element type.
+     */
+    static Map.Entry<String, Set<String>> references(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        ConstantPool pool = readConstantPool(in);
+        in.readUnsignedShort();
+        String name = pool.className(in.readUnsignedShort());
+        Set<String> refs = new TreeSet<>();
+        for (int i = 1; i < pool.utf8().length; i++) {
+            if (pool.classNameIndex()[i] != 0) {
+                String ref = pool.utf8()[pool.classNameIndex()[i]];
+                if (ref.startsWith("[")) {
+                    descriptorTypes(ref, refs);
+                } else {
+                    refs.add(ref.replace('/', '.'));
+                }
+            } else if (pool.utf8()[i] != null && pool.utf8()[i].indexOf(';') > 0) {
+                descriptorTypes(pool.utf8()[i], refs);
+            }
+        }
+        refs.remove(name);
+        return Map.entry(name, refs);
+    }
+
+    private static void descriptorTypes(String descriptor, Set<String> into) {
+        Matcher m = DESCRIPTOR_TYPE.matcher(descriptor);
+        while (m.find()) into.add(m.group(1).replace('/', '.'));
+    }
+
+    /** Parse the parts of a class file (JVMS chapter 4) the scanner needs, skipping everything else. */
+    static ClassInfo parse(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        ConstantPool pool = readConstantPool(in);
+        String[] utf8 = pool.utf8();
+        int access = in.readUnsignedShort();
+        String name = pool.className(in.readUnsignedShort());
+        int superIndex = in.readUnsignedShort();
+        String superName = superIndex == 0 ? null : pool.className(superIndex);
+        in.skipBytes(2 * in.readUnsignedShort());
+
+        int fields = in.readUnsignedShort();
+        for (int i = 0; i < fields; i++) {
+            in.skipBytes(6);
+            skipAttributes(in);
+        }
+
+        List<String> testMethods = new ArrayList<>();
+        List<String> publicMethods = new ArrayList<>();
+        int methods = in.readUnsignedShort();
+        for (int i = 0; i < methods; i++) {
+            int methodAccess = in.readUnsignedShort();
+            String methodName = utf8[in.readUnsignedShort()];
+            in.skipBytes(2);
+            List<String> annotations = annotations(in, utf8);
+            if (methodName.startsWith("<")) continue;
+            if (annotations.contains(TEST)) {
+                testMethods.add(methodName);
+            } else if ((methodAccess & ACC_PUBLIC) != 0 && (methodAccess & ACC_STATIC) == 0
+                    && annotations.stream().noneMatch(a -> a.startsWith(TESTNG_ANNOTATIONS))) {
+                publicMethods.add(methodName);
+            }
+        }
+        boolean classLevelTest = annotations(in, utf8).contains(TEST);
+        return new ClassInfo(name, superName, access, classLevelTest, testMethods, publicMethods);
+    }
+
+    /** Read an attribute table, returning the descriptors of its RuntimeVisibleAnnotations. */
+    private static List<String> annotations(DataInputStream in, String[] utf8) throws IOException {
+        List<String> found = new ArrayList<>();
+        int attributes = in.readUnsignedShort();
+        for (int i = 0; i < attributes; i++) {
+            String attribute = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (!"RuntimeVisibleAnnotations".equals(attribute)) {
+                in.skipBytes(length);
+                continue;
+            }
+            int n = in.readUnsignedShort();
+            for (int a = 0; a < n; a++) found.add(annotation(in, utf8));
+        }
+        return found;
+    }
+
+    private static String annotation(DataInputStream in, String[] utf8) throws IOException {
+        String type = utf8[in.readUnsignedShort()];
+        int pairs = in.readUnsignedShort();
+        for (int p = 0; p < pairs; p++) {
+            in.skipBytes(2);
+            skipElementValue(in, utf8);
+        }
+        return type;
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> in.skipBytes(2);
+            case 'e' -> in.skipBytes(4);
+            case '@' -> annotation(in, utf8);
+            case '[' -> {
+                int n = in.readUnsignedShort();
+                for (int i = 0; i < n; i++) skipElementValue(in, utf8);
+            }
+            default -> throw new IOException("unknown element value tag " + (char) tag);
+        }
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        int attributes = in.readUnsignedShort();
+        for (int i = 0; i < attributes; i++) {
+            in.skipBytes(2);
+            in.skipBytes(in.readInt());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.navadiya.discovery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Static class-level dependency graph of compiled code (e.g. target/classes and target/test-classes), read
+ * from the class files' constant pools: a test class depends on the page objects, utilities and drivers it
+ * names, and transitively on what those name. Nested and anonymous classes count as part of their top-level
+ * class, which is the unit a source change maps to. Only references between the scanned classes are kept.
+ * <p>
+ * The per-class-file references are cached by CRC32 of the class file, so a rebuild only re-reads class files
+ * whose bytes changed and the cache stays valid across clean builds and agents. Reflection and
+ * configuration-driven wiring are invisible to the graph.
+ */
+public final class DependencyGraph {
+    private static final Logger log = LoggerFactory.getLogger(DependencyGraph.class);
+
+    private static final String HEADER = "# navadiya dependency graph: class, crc32, referenced classes";
+
+    /** References of one class file. */
+    private record Node(long crc, Set<String> refs) {}
+
+    /** Top-level class → top-level classes it references directly. */
+    private final Map<String, Set<String>> edges;
+
+    private DependencyGraph(Map<String, Set<String>> edges) {
+        this.edges = edges;
+    }
+
+    /** Build the graph of the class files under roots, reusing (and then updating) the cache file. */
+    public static DependencyGraph build(Collection<Path> roots, Path cache) {
+        long start = System.nanoTime();
+        Map<String, Node> cached = read(cache);
+        Map<String, Node> nodes = new ConcurrentHashMap<>();
+        Map<String, Path> files = new HashMap<>();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) classFiles(root).forEach((name, file) -> files.putIfAbsent(name, file));
+        }
+        AtomicInteger reread = new AtomicInteger();
+        files.entrySet().parallelStream().forEach(e -> {
+            try {
+                byte[] bytes = Files.readAllBytes(e.getValue());
+                CRC32 crc = new CRC32();
+                crc.update(bytes);
+                Node previous = cached.get(e.getKey());
+                if (previous != null && previous.crc() == crc.getValue()) {
+                    nodes.put(e.getKey(), previous);
+                } else {
+                    Set<String> refs = new TreeSet<>(BytecodeScanner.references(bytes).getValue());
+                    refs.removeIf(ref -> ref.startsWith("java.") || ref.startsWith("javax.") || ref.startsWith("jdk.") || ref.startsWith("sun."));
+                    nodes.put(e.getKey(), new Node(crc.getValue(), refs));
+                    reread.incrementAndGet();
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Skipping class file {}: {}", e.getValue(), ex.getMessage());
+            }
+        });
+        if (reread.get() > 0 || !nodes.keySet().equals(cached.keySet())) write(cache, nodes);
+
+        Map<String, Set<String>> edges = new HashMap<>();
+        for (String name : nodes.keySet()) edges.putIfAbsent(topLevel(name), new TreeSet<>());
+        nodes.forEach((name, node) -> {
+            String from = topLevel(name);
+            for (String ref : node.refs()) {
+                String to = topLevel(ref);
+                if (!to.equals(from) && edges.containsKey(to)) edges.get(from).add(to);
+            }
+        });
+        log.info("Dependency graph: {} classes from {} class files ({} re-read) in {} ms",
+                edges.size(), nodes.size(), reread.get(), (System.nanoTime() - start) / 1_000_000);
+        return new DependencyGraph(edges);
+    }
+
+    /** Whether the graph contains the (top-level) class. */
+    public boolean contains(String className) {
+        return edges.containsKey(topLevel(className));
+    }
+
+    /** The given classes and every class that reaches one of them through its references. */
+    public Set<String> dependentsOf(Collection<String> classes) {
+        Map<String, Set<String>> reverse = new HashMap<>();
+        edges.forEach((from, tos) -> tos.forEach(to -> reverse.computeIfAbsent(to, k -> new HashSet<>()).add(from)));
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        for (String c : classes) {
+            String top = topLevel(c);
+            if (edges.containsKey(top) && seen.add(top)) queue.add(top);
+        }
+        while (!queue.isEmpty()) {
+            for (String from : reverse.getOrDefault(queue.poll(), Set.of())) {
+                if (seen.add(from)) queue.add(from);
+            }
+        }
+        return seen;
+    }
+
+    static String topLevel(String className) {
+        int dollar = className.indexOf('$');
+        return dollar < 0 ? className : className.substring(0, dollar);
+    }
+
+    /** Class files under root by binary class name (derived from the path, without reading the file). */
+    private static Map<String, Path> classFiles(Path root) {
+        try (Stream<Path> walk = Files.walk(root)) {
+            Map<String, Path> files = new HashMap<>();
+            walk.filter(p -> p.getFileName().toString().endsWith(".class"))
+                    .filter(p -> !p.getFileName().toString().endsWith("-info.class"))
+                    .forEach(p -> {
+                        String relative = root.relativize(p).toString().replace(p.getFileSystem().getSeparator(), ".");
+                        files.put(relative.substring(0, relative.length() - ".class".length()), p);
+                    });
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Node> read(Path cache) {
+        Map<String, Node> nodes = new HashMap<>();
+        if (!Files.exists(cache)) return nodes;
+        try {
+            for (String line : Files.readAllLines(cache, StandardCharsets.UTF_8)) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] f = line.split("\t", -1);
+                if (f.length < 3) continue;
+                Set<String> refs = f[2].isEmpty() ? Set.of() : new TreeSet<>(List.of(f[2].split(",")));
+                nodes.put(f[0], new Node(Long.parseLong(f[1]), refs));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable dependency graph cache {}: {}", cache, e.getMessage());
+            nodes.clear();
+        }
+        return nodes;
+    }
+
+    private static void write(Path cache, Map<String, Node> nodes) {
+        try {
+            Path parent = cache.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = parent.resolve(cache.getFileName() + ".tmp");
+            try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                w.write(HEADER);
+                w.newLine();
+                for (Map.Entry<String, Node> e : new TreeMap<>(nodes).entrySet()) {
+                    w.write(e.getKey() + '\t' + e.getValue().crc() + '\t' + String.join(",", e.getValue().refs()));
+                    w.newLine();
+                }
+            }
+            Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write dependency graph cache {}: {}", cache, e.getMessage());
+        }
+    }
+}
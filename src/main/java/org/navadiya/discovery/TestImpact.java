@@ -0,0 +1,150 @@
+package org.navadiya.discovery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Test selection by change impact: the classes changed since a git revision (committed, uncommitted and new
+ * files) are looked up in the {@link DependencyGraph}, and only test classes that reach one of them are run.
+ * <p>
+ * Falls back to running everything when the change cannot be mapped to classes safely: git is unavailable
+ * or the revision unknown, a non-Java file under src/ (properties, test data...) or the pom changed, or a
+ * changed class is reachable from an infrastructure class (e.g. the suite runner and the listeners it
+ * registers, or a {@link #serviceProviders(Collection) ServiceLoader provider}) that every test depends on
+ * without naming it. Markdown files and files outside src/ are ignored.
+ */
+public final class TestImpact {
+    private static final Logger log = LoggerFactory.getLogger(TestImpact.class);
+
+    private static final List<String> SOURCE_ROOTS = List.of("src/main/java/", "src/test/java/");
+
+    /** Classes affected by the change, or null when every test has to run. */
+    private final Set<String> affected;
+    private final String reason;
+
+    private TestImpact(Set<String> affected, String reason) {
+        this.affected = affected;
+        this.reason = reason;
+    }
+
+    /** Impact of the changes since revision (e.g. origin/main) on the classes in graph. */
+    public static TestImpact since(String revision, DependencyGraph graph, Collection<String> infrastructure) {
+        List<String> files = git("diff", "--name-only", revision, "--");
+        List<String> untracked = git("ls-files", "--others", "--exclude-standard");
+        if (files == null || untracked == null) {
+            return new TestImpact(null, "could not list changes since " + revision);
+        }
+        files.addAll(untracked);
+
+        Set<String> changed = new TreeSet<>();
+        for (String file : files) {
+            String className = className(file);
+            if (className != null) {
+                if (graph.contains(className)) changed.add(className);
+            } else if (file.equals("pom.xml") || file.endsWith("/pom.xml")
+                    || ((file.startsWith("src/") || file.contains("/src/")) && !file.endsWith(".md"))) {
+                return new TestImpact(null, "non-Java change " + file);
+            }
+        }
+        Set<String> affected = graph.dependentsOf(changed);
+        for (String root : infrastructure) {
+            if (affected.contains(DependencyGraph.topLevel(root))) {
+                return new TestImpact(null, "change reaches " + root);
+            }
+        }
+        log.info("{} changed files since {}, {} changed classes affect {} classes", files.size(), revision, changed.size(), affected.size());
+        return new TestImpact(affected, changed.size() + " changed classes since " + revision);
+    }
+
+    /**
+     * Classes registered for ServiceLoader in the META-INF/services files under the class directories roots
+     * (e.g. Allure lifecycle listeners). Nothing names them, so they are infrastructure roots for {@link #since}.
+     */
+    public static List<String> serviceProviders(Collection<Path> roots) {
+        Set<String> providers = new TreeSet<>();
+        for (Path root : roots) {
+            Path services = root.resolve("META-INF/services");
+            if (!Files.isDirectory(services)) continue;
+            try (Stream<Path> files = Files.list(services)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                        int comment = line.indexOf('#');
+                        String provider = (comment < 0 ? line : line.substring(0, comment)).trim();
+                        if (!provider.isEmpty()) providers.add(provider);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not read service registrations in {}: {}", services, e.getMessage());
+            }
+        }
+        return new ArrayList<>(providers);
+    }
+
+    public boolean affects(String className) {
+        return affected == null || affected.contains(DependencyGraph.topLevel(className));
+    }
+
+    /** The test classes affected by the change, logging the ones that are skipped. */
+    public List<String> filter(List<String> testClasses) {
+        if (affected == null) {
+            log.info("Running all {} test classes: {}", testClasses.size(), reason);
+            return testClasses;
+        }
+        List<String> selected = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (String tc : testClasses) (affects(tc.trim()) ? selected : skipped).add(tc);
+        log.info("Selected {} of {} test classes ({}); not affected: {}", selected.size(), testClasses.size(), reason, skipped);
+        return selected;
+    }
+
+    /** Class name of a Java source path (src/main/java/a/b/C.java → a.b.C), or null for other files. */
+    static String className(String file) {
+        if (!file.endsWith(".java")) return null;
+        for (String root : SOURCE_ROOTS) {
+            int at = file.indexOf(root);
+            if (at == 0 || (at > 0 && file.charAt(at - 1) == '/')) {
+                String relative = file.substring(at + root.length(), file.length() - ".java".length());
+                return relative.replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    /** Output lines of a git command, or null when it fails. */
+    private static List<String> git(String... args) {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            String out;
+            try (InputStream in = process.getInputStream()) {
+                out = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                process.destroy();
+                log.warn("{} failed", String.join(" ", command));
+                return null;
+            }
+            return new ArrayList<>(out.lines().filter(l -> !l.isBlank()).toList());
+        } catch (IOException e) {
+            log.warn("Could not run git: {}", e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
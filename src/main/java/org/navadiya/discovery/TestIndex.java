@@ -0,0 +1,113 @@
+package org.navadiya.discovery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * TestNG test classes and their test methods, read from the build-time index written by
+ * {@link TestIndexProcessor}. When no index is on the classpath (e.g. tests compiled without the
+ * processor), {@link #discover(String)} falls back to {@link BytecodeScanner}, which reads class files
+ * in parallel without loading or initializing them.
+ * <p>
+ * Index format: one line per class, {@code fully.qualified.Class:method1,method2}; '#' starts a comment.
+ */
+public final class TestIndex {
+    private static final Logger log = LoggerFactory.getLogger(TestIndex.class);
+
+    public static final String RESOURCE = "META-INF/navadiya/test-index.txt";
+
+    /** Class name → test method names, sorted by class name. */
+    private final Map<String, List<String>> classes;
+
+    /** The build-time index, read once on first use. */
+    private static final class Loaded {
+        static final TestIndex INDEX = load();
+    }
+
+    TestIndex(Map<String, List<String>> classes) {
+        this.classes = Collections.unmodifiableMap(new TreeMap<>(classes));
+    }
+
+    /** The build-time index from all classpath entries, or null when none is present. */
+    public static TestIndex load() {
+        try {
+            Enumeration<URL> resources = TestIndex.class.getClassLoader().getResources(RESOURCE);
+            if (!resources.hasMoreElements()) return null;
+            Map<String, List<String>> classes = new LinkedHashMap<>();
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                try (InputStream in = url.openStream()) {
+                    parse(new String(in.readAllBytes(), StandardCharsets.UTF_8), classes);
+                }
+            }
+            return new TestIndex(classes);
+        } catch (IOException e) {
+            log.warn("Could not read test index: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /** The build-time index, or a bytecode scan of pkg (and its subpackages) when there is none. */
+    public static TestIndex discover(String pkg) {
+        long start = System.nanoTime();
+        TestIndex index = Loaded.INDEX;
+        String source = "index";
+        if (index == null) {
+            index = BytecodeScanner.scan(pkg);
+            source = "bytecode scan";
+        }
+        log.info("Discovered {} test classes via {} in {} ms", index.classes.size(), source, (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    /** Test classes in pkg or one of its subpackages, sorted by name. */
+    public List<String> classesIn(String pkg) {
+        String prefix = pkg.isEmpty() ? "" : pkg + ".";
+        return classes.keySet().stream().filter(c -> c.startsWith(prefix)).toList();
+    }
+
+    /** Test method names of className, or an empty list when it is not a known test class. */
+    public List<String> methodsOf(String className) {
+        return classes.getOrDefault(className, List.of());
+    }
+
+    /**
+     * Test methods of className from the build-time index, or read from its class file when the class is not
+     * indexed (e.g. compiled without the processor).
+     */
+    public static List<String> testMethodsOf(String className) {
+        TestIndex index = Loaded.INDEX;
+        List<String> methods = index == null ? List.of() : index.methodsOf(className);
+        return methods.isEmpty() ? BytecodeScanner.methodsOf(className) : methods;
+    }
+
+    public Set<String> classes() {
+        return classes.keySet();
+    }
+
+    private static void parse(String text, Map<String, List<String>> into) {
+        for (String line : text.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                into.putIfAbsent(line, List.of());
+                continue;
+            }
+            String methods = line.substring(colon + 1).trim();
+            into.put(line.substring(0, colon), methods.isEmpty() ? List.of() : List.of(methods.split(",")));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.navadiya.discovery;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Compile-time index of TestNG test classes: every concrete top-level class compiled in this run that declares or
+ * inherits {@code @Test} methods (or carries a class-level {@code @Test}) is written with its test methods
+ * to {@value TestIndex#RESOURCE}. Enabled for test compilation in the pom; {@link TestIndex} reads it at
+ * startup instead of scanning the classpath.
+ * <p>
+ * TestNG is referenced by name only and nothing outside the JDK is loaded, so the processor runs on a
+ * bare processor path.
+ */
+@SupportedAnnotationTypes("*")
+public class TestIndexProcessor extends AbstractProcessor {
+
+    private static final String TEST = "org.testng.annotations.Test";
+    private static final String TESTNG_ANNOTATIONS = "org.testng.annotations.";
+
+    private final Map<String, Set<String>> index = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!index.isEmpty()) write();
+            return false;
+        }
+        for (Element root : roundEnv.getRootElements()) collect(root);
+        return false;
+    }
+
+    private void collect(Element element) {
+        if (!(element instanceof TypeElement type)) return;
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) return;
+        Set<String> methods = new LinkedHashSet<>();
+        for (TypeElement c = type; c != null; c = superclassOf(c)) {
+            boolean classLevel = hasTest(c);
+            for (Element member : c.getEnclosedElements()) {
+                if (!(member instanceof ExecutableElement method) || method.getKind() != ElementKind.METHOD) continue;
+                if (hasTest(method) || (classLevel && isPlainPublic(method))) methods.add(method.getSimpleName().toString());
+            }
+        }
+        if (!methods.isEmpty()) index.put(processingEnv.getElementUtils().getBinaryName(type).toString(), methods);
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) return null;
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private static boolean hasTest(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(TEST)) return true;
+        }
+        return false;
+    }
+
+    /** Public instance method without TestNG configuration annotations (counted as test under a class-level @Test). */
+    private static boolean isPlainPublic(ExecutableElement method) {
+        if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) return false;
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (name.startsWith(TESTNG_ANNOTATIONS)) return false;
+        }
+        return true;
+    }
+
+    private void write() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", TestIndex.RESOURCE);
+            try (Writer out = file.openWriter()) {
+                out.write("# TestNG test classes and methods, generated by TestIndexProcessor\n");
+                for (Map.Entry<String, Set<String>> e : index.entrySet()) {
+                    out.write(e.getKey() + ":" + String.join(",", e.getValue()) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write test index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.navadiya.driver;
+
+import org.navadiya.config.ApplicationConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.log.BaseLogEntry;
+import org.openqa.selenium.bidi.log.LogLevel;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.BaseParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Opt-in (browser.events.enabled) collector that subscribes to console, JavaScript error and network
+ * events over WebDriver BiDi for the session of the current thread. Events are pushed by the browser,
+ * so nothing is polled; they land in bounded buffers and are only summarised when a test fails.
+ */
+public final class BrowserEventCollector implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BrowserEventCollector.class);
+
+    private static final ThreadLocal<BrowserEventCollector> CURRENT = new ThreadLocal<>();
+
+    private final int maxEvents;
+    private final Deque<String> consoleErrors = new ArrayDeque<>();
+    private final Deque<RequestRecord> requests = new ArrayDeque<>();
+    private final Map<String, Long> inFlight = new LinkedHashMap<>();
+    private int consoleTotal;
+    private int requestTotal;
+    private volatile long lastNetworkActivity = System.currentTimeMillis();
+    private LogInspector logInspector;
+    private Network network;
+
+    /** A finished (or failed) network request. status is -1 when the fetch itself failed. */
+    private record RequestRecord(String method, String url, int status, long durationMs, String error) {
+        boolean failed() {
+            return status < 0 || status >= 400;
+        }
+    }
+
+    private BrowserEventCollector(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * Subscribe to BiDi events for a freshly created session and bind the collector to the current thread.
+     * No-op when disabled or when the driver does not expose BiDi (webSocketUrl capability not negotiated).
+     */
+    public static void start(WebDriver driver) {
+        discard();
+        if (!ApplicationConfig.isBrowserEventsEnabled()) return;
+        WebDriver raw = DriverManager.unwrap(driver);
+        if (!(raw instanceof HasBiDi bidi) || bidi.maybeGetBiDi().isEmpty()) {
+            log.debug("BiDi not available for {}, browser event capture disabled", raw == null ? null : raw.getClass().getSimpleName());
+            return;
+        }
+        BrowserEventCollector collector = new BrowserEventCollector(ApplicationConfig.getBrowserEventsMax());
+        try {
+            collector.subscribe(raw);
+            CURRENT.set(collector);
+        } catch (Exception e) {
+            log.warn("Could not subscribe to BiDi events: {}", e.getMessage());
+            collector.close();
+        }
+    }
+
+    /** Unsubscribe from the browser (call before quitting the driver); buffered events are kept. */
+    public static void stop() {
+        BrowserEventCollector collector = CURRENT.get();
+        if (collector != null) collector.close();
+    }
+
+    /** Unsubscribe and drop all buffered events of the current thread. */
+    public static void discard() {
+        BrowserEventCollector collector = CURRENT.get();
+        if (collector != null) {
+            collector.close();
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Compact summary (console errors, failed requests, slowest requests) of the current thread's session,
+     * releasing the buffers.
+     *
+     * @return summary text, or null when no collector was active
+     */
+    public static String drainSummary() {
+        BrowserEventCollector collector = CURRENT.get();
+        if (collector == null) return null;
+        collector.close();
+        CURRENT.remove();
+        return collector.summary();
+    }
+
+    /**
+     * Network activity of the current thread's session as seen over BiDi.
+     *
+     * @return {requests in flight, milliseconds since the last request started or finished},
+     *         or null when no collector is active
+     */
+    public static long[] networkActivity() {
+        BrowserEventCollector collector = CURRENT.get();
+        if (collector == null || collector.network == null) return null;
+        synchronized (collector) {
+            return new long[]{collector.inFlight.size(), System.currentTimeMillis() - collector.lastNetworkActivity};
+        }
+    }
+
+    private void subscribe(WebDriver driver) {
+        logInspector = new LogInspector(driver);
+        logInspector.onConsoleEntry(this::onConsole);
+        logInspector.onJavaScriptException(this::onConsole);
+
+        network = new Network(driver);
+        network.onBeforeRequestSent(e -> {
+            synchronized (this) {
+                if (inFlight.size() >= maxEvents) inFlight.remove(inFlight.keySet().iterator().next());
+                inFlight.put(e.getRequest().getRequestId(), e.getTimestamp());
+                lastNetworkActivity = System.currentTimeMillis();
+            }
+        });
+        network.onResponseCompleted(e -> finish(e, e.getResponseData().getStatus(), null));
+        network.onFetchError(e -> finish(e, -1, e.getErrorText()));
+    }
+
+    private synchronized void onConsole(BaseLogEntry entry) {
+        consoleTotal++;
+        if (entry.getLevel() != LogLevel.ERROR) return;
+        if (consoleErrors.size() >= maxEvents) consoleErrors.removeFirst();
+        consoleErrors.addLast(entry.getText());
+    }
+
+    private synchronized void finish(BaseParameters event, int status, String error) {
+        requestTotal++;
+        Long started = inFlight.remove(event.getRequest().getRequestId());
+        lastNetworkActivity = System.currentTimeMillis();
+        long duration = (started == null) ? -1 : Math.max(0, event.getTimestamp() - started);
+        if (requests.size() >= maxEvents) requests.removeFirst();
+        requests.addLast(new RequestRecord(event.getRequest().getMethod(), event.getRequest().getUrl(), status, duration, error));
+    }
+
+    private synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        List<RequestRecord> failed = requests.stream().filter(RequestRecord::failed).toList();
+        sb.append(String.format(Locale.ROOT, "Console messages: %d (errors buffered: %d)%n", consoleTotal, consoleErrors.size()));
+        sb.append(String.format(Locale.ROOT, "Network requests: %d finished, %d in flight, %d failed%n%n",
+                requestTotal, inFlight.size(), failed.size()));
+
+        sb.append("Console errors:").append(System.lineSeparator());
+        if (consoleErrors.isEmpty()) sb.append("  (none)").append(System.lineSeparator());
+        consoleErrors.forEach(text -> sb.append("  ").append(text).append(System.lineSeparator()));
+
+        sb.append(System.lineSeparator()).append("Failed requests:").append(System.lineSeparator());
+        if (failed.isEmpty()) sb.append("  (none)").append(System.lineSeparator());
+        failed.forEach(r -> sb.append("  ").append(format(r)).append(System.lineSeparator()));
+
+        sb.append(System.lineSeparator()).append("Slowest requests:").append(System.lineSeparator());
+        requests.stream()
+                .filter(r -> r.durationMs() >= 0)
+                .sorted(Comparator.comparingLong(RequestRecord::durationMs).reversed())
+                .limit(10)
+                .forEach(r -> sb.append("  ").append(format(r)).append(System.lineSeparator()));
+        return sb.toString();
+    }
+
+    private static String format(RequestRecord r) {
+        String outcome = (r.error() != null) ? r.error() : Integer.toString(r.status());
+        return String.format(Locale.ROOT, "%6d ms  %-4s %s  %s", r.durationMs(), outcome, r.method(), r.url());
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (logInspector != null) logInspector.close();
+        } catch (Exception ignored) {}
+        try {
+            if (network != null) network.close();
+        } catch (Exception ignored) {}
+        logInspector = null;
+        network = null;
+    }
+}
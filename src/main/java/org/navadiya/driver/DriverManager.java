@@ -3,6 +3,7 @@ package org.navadiya.driver;
 import org.navadiya.config.ApplicationConfig;
 import com.epam.healenium.SelfHealingDriver;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
 
 /**
  * Thread-safe WebDriver holder using ThreadLocal.
@@ -21,11 +22,12 @@ public class DriverManager {
 
     /**
      * Create a WebDriver instance for the current thread using the provided browser value.
-     * If browser is null, fall back to System property or application config defaults.
+     * If browser is null, fall back to the browser setting of the thread's configuration scope (or -Dbrowser),
+     * then to the first of app.browsers.
      */
     public static void createDriver(String browser) throws Exception {
         String desired = browser;
-            if (desired == null || desired.isEmpty()) desired = System.getProperty("browser");
+        if (desired == null || desired.isEmpty()) desired = ApplicationConfig.getProperty("browser");
         if (desired == null || desired.isEmpty()) {
             String[] browsers = ApplicationConfig.getBrowsers();
             desired = (browsers != null && browsers.length > 0) ? browsers[0] : "chrome";
@@ -58,6 +60,8 @@ public class DriverManager {
             }
             DRIVER.set(wd);
             BROWSER.set(desired);
+            // subscribe to console/network events for this session (no-op unless browser.events.enabled)
+            BrowserEventCollector.start(wd);
         }
     }
 
@@ -65,9 +69,34 @@ public class DriverManager {
         return DRIVER.get();
     }
 
+    /** Browser name the current thread's driver was created for, or null when there is none. */
+    public static String getBrowser() {
+        return BROWSER.get();
+    }
+
+    /**
+     * Return the underlying browser driver, stripping Healenium and other wrappers so callers
+     * can check for capabilities such as CDP or BiDi support on the real driver class.
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver current = driver;
+        for (int i = 0; i < 5 && current != null; i++) {
+            if (current instanceof SelfHealingDriver shd) {
+                current = shd.getDelegate();
+            } else if (current instanceof WrapsDriver wd) {
+                current = wd.getWrappedDriver();
+            } else {
+                break;
+            }
+        }
+        return current;
+    }
+
     public static void quitDriver() {
         WebDriver wd = DRIVER.get();
         if (wd != null) {
+            // unsubscribe while the session is alive; buffered events stay available to TestListener
+            BrowserEventCollector.stop();
             try {
                 wd.quit();
             } catch (Exception ignore) {
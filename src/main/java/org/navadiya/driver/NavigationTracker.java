@@ -0,0 +1,95 @@
+package org.navadiya.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts navigations (url, back, forward, refresh) per session from the WebDriver command stream, so
+ * cached element references can be dropped after a navigation without asking the browser. Also counts
+ * every command that may change the page (any POST or DELETE other than element lookups, timeouts and
+ * screenshots, including CDP Page.captureScreenshot), which invalidates DOM snapshots. Installed as an
+ * HTTP client filter by {@link WebDriverFactory}.
+ */
+public final class NavigationTracker {
+
+    private static final Pattern NAVIGATION = Pattern.compile("/session/([^/]+)/(url|back|forward|refresh)$");
+    private static final Pattern SESSION_END = Pattern.compile("/session/([^/]+)$");
+    private static final Pattern COMMAND = Pattern.compile("/session/([^/]+)/(.+)$");
+    /** POST commands that only read: element lookups, timeouts and screenshots. */
+    private static final Pattern READ_ONLY = Pattern.compile(
+            "^(elements?|timeouts|screenshot|(element|shadow)/[^/]+/elements?|element/[^/]+/screenshot)$");
+    /** Chromium's CDP passthrough; only the command in its body tells whether it changes the page. */
+    private static final Pattern CDP_EXECUTE = Pattern.compile("^(goog|ms)/cdp/execute$");
+    /** CDP commands that only read, e.g. the periodic screenshots of FrameRecorder and ScreenshotUtils. */
+    private static final Pattern CDP_READ_ONLY = Pattern.compile("\"cmd\"\\s*:\\s*\"Page\\.captureScreenshot\"");
+
+    private static final Map<String, AtomicLong> EPOCHS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> MUTATIONS = new ConcurrentHashMap<>();
+
+    private NavigationTracker() {}
+
+    public static Filter filter() {
+        return next -> (HttpHandler) request -> {
+            HttpResponse response = next.execute(request);
+            String uri = request.getUri();
+            if (request.getMethod() == HttpMethod.POST) {
+                Matcher m = NAVIGATION.matcher(uri);
+                if (m.find()) EPOCHS.computeIfAbsent(m.group(1), id -> new AtomicLong()).incrementAndGet();
+                countMutation(request);
+            } else if (request.getMethod() == HttpMethod.DELETE) {
+                Matcher m = SESSION_END.matcher(uri);
+                if (m.find()) {
+                    EPOCHS.remove(m.group(1));
+                    MUTATIONS.remove(m.group(1));
+                } else {
+                    countMutation(request);
+                }
+            }
+            return response;
+        };
+    }
+
+    private static void countMutation(HttpRequest request) {
+        Matcher m = COMMAND.matcher(request.getUri());
+        if (!m.find() || READ_ONLY.matcher(m.group(2)).matches()) return;
+        if (CDP_EXECUTE.matcher(m.group(2)).matches() && CDP_READ_ONLY.matcher(Contents.string(request)).find()) return;
+        MUTATIONS.computeIfAbsent(m.group(1), id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** Session id of driver (unwrapping decorators), or null when it is not a remote session. */
+    public static String sessionOf(WebDriver driver) {
+        WebDriver raw = DriverManager.unwrap(driver);
+        if (raw instanceof RemoteWebDriver remote) {
+            SessionId id = remote.getSessionId();
+            return id == null ? null : id.toString();
+        }
+        return null;
+    }
+
+    /** Number of navigations seen for session so far; 0 for unknown sessions. */
+    public static long epoch(String sessionId) {
+        if (sessionId == null) return 0;
+        AtomicLong epoch = EPOCHS.get(sessionId);
+        return epoch == null ? 0 : epoch.get();
+    }
+
+    /** Number of commands seen for session so far that may have changed the page; 0 for unknown sessions. */
+    public static long mutations(String sessionId) {
+        if (sessionId == null) return 0;
+        AtomicLong count = MUTATIONS.get(sessionId);
+        return count == null ? 0 : count.get();
+    }
+}
@@ -1,21 +1,29 @@
 package org.navadiya.driver;
 
+import io.appium.java_client.AppiumClientConfig;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.options.UiAutomator2Options;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.ios.options.XCUITestOptions;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.navadiya.config.ApplicationConfig;
+import org.navadiya.metrics.Timings;
 import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,21 +48,22 @@ public class WebDriverFactory {
         if (useGrid) {
             MutableCapabilities caps = createCapabilities(b);
             // avoid deprecated URL(String) constructor
-            return new RemoteWebDriver(URI.create(gridUrl).toURL(), caps);
+            ClientConfig config = clientConfig().baseUrl(URI.create(gridUrl).toURL());
+            return new RemoteWebDriver(new HttpCommandExecutor(config), caps);
         }else {
 
             switch (b) {
                 case "android":
                     UiAutomator2Options androidOptions = AppiumCapabilitiesManager.createAndroidCapabilities();
                     String appiumUrl = AppiumCapabilitiesManager.getAppiumServerUrl();
-                    AndroidDriver androidDriver = new AndroidDriver(URI.create(appiumUrl).toURL(), androidOptions);
+                    AndroidDriver androidDriver = new AndroidDriver(appiumClientConfig(appiumUrl), androidOptions);
                     log.info("Android driver created successfully");
                     return androidDriver;
 
                 case "ios":
                     XCUITestOptions iosOptions = AppiumCapabilitiesManager.createiOSCapabilities();
                     String iosAppiumUrl = AppiumCapabilitiesManager.getAppiumServerUrl();
-                    IOSDriver iosDriver = new IOSDriver(URI.create(iosAppiumUrl).toURL(), iosOptions);
+                    IOSDriver iosDriver = new IOSDriver(appiumClientConfig(iosAppiumUrl), iosOptions);
                     log.info("iOS driver created successfully");
                     return iosDriver;
 
@@ -63,7 +72,8 @@ public class WebDriverFactory {
                     FirefoxOptions fopts = new FirefoxOptions();
                     if (ApplicationConfig.isHeadless()) fopts.addArguments("-headless=new");
                     fopts.setPageLoadStrategy(PageLoadStrategy.NORMAL);
-                    FirefoxDriver f = new FirefoxDriver(fopts);
+                    enableBiDiIfRequested(fopts);
+                    FirefoxDriver f = new FirefoxDriver(GeckoDriverService.createDefaultService(), fopts, clientConfig());
                     f.manage().window().maximize();
                     return f;
                 case "edge":
@@ -71,7 +81,8 @@ public class WebDriverFactory {
                     EdgeOptions eopts = new EdgeOptions();
                     if (ApplicationConfig.isHeadless()) eopts.addArguments("--headless=new");
                     eopts.setPageLoadStrategy(PageLoadStrategy.NORMAL);
-                    EdgeDriver e = new EdgeDriver(eopts);
+                    enableBiDiIfRequested(eopts);
+                    EdgeDriver e = new EdgeDriver(EdgeDriverService.createDefaultService(), eopts, clientConfig());
                     e.manage().window().maximize();
                     return e;
                 case "chrome":
@@ -80,6 +91,7 @@ public class WebDriverFactory {
                     ChromeOptions opts = new ChromeOptions();
                     if (ApplicationConfig.isHeadless()) opts.addArguments("--headless=new");
                     opts.setPageLoadStrategy(PageLoadStrategy.NORMAL);
+                    enableBiDiIfRequested(opts);
                     opts.addArguments("window-size=1900,1080");
                     try {
                         // Add Chrome profile if enabled
@@ -97,7 +109,7 @@ public class WebDriverFactory {
                             }
                         }
 
-                        ChromeDriver c = new ChromeDriver(opts);
+                        ChromeDriver c = new ChromeDriver(ChromeDriverService.createDefaultService(), opts, clientConfig());
                         c.manage().window().maximize();
                         // Implicit wait removed - using AjaxElementLocatorFactory and explicit waits
                         return c;
@@ -109,9 +121,30 @@ public class WebDriverFactory {
         }
     }
 
+    /** Request a BiDi websocket for the session when browser event capture is enabled. */
+    private static void enableBiDiIfRequested(MutableCapabilities caps) {
+        if (ApplicationConfig.isBrowserEventsEnabled()) caps.setCapability("webSocketUrl", true);
+    }
+
+    /** HTTP client config for new sessions; times every driver command when metrics are enabled. */
+    private static ClientConfig clientConfig() {
+        return ClientConfig.defaultConfig().withFilter(commandFilters());
+    }
+
+    private static AppiumClientConfig appiumClientConfig(String url) throws Exception {
+        return AppiumClientConfig.defaultConfig().baseUrl(URI.create(url).toURL()).withFilter(commandFilters());
+    }
+
+    /** withFilter replaces earlier filters, so all command filters are chained here. */
+    private static Filter commandFilters() {
+        Filter filter = NavigationTracker.filter();
+        return ApplicationConfig.isMetricsEnabled() ? filter.andThen(Timings.commandFilter()) : filter;
+    }
+
     private static MutableCapabilities createCapabilities(String browser) {
         MutableCapabilities caps = new MutableCapabilities();
         caps.setCapability("browserName", browser);
+        enableBiDiIfRequested(caps);
         // cloud provider capabilities can be added by ApplicationConfig when required
         return caps;
     }
@@ -0,0 +1,40 @@
+package org.navadiya.history;
+
+import org.navadiya.config.ApplicationConfig;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges the results of a sharded job into the shared test history once all its shards have finished, e.g. as
+ * the last CI stage after collecting every agent's {@code tests.shard-N.tsv} next to {@code history.file}:
+ *
+ * <pre>
+ * mvn -q exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.navadiya.history.HistoryMerge
+ * </pre>
+ * Without arguments every shard file next to history.file is merged; otherwise only the given files.
+ */
+public class HistoryMerge {
+
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(ApplicationConfig.getHistoryFile());
+        List<Path> shardFiles = new ArrayList<>();
+        if (args.length > 0) {
+            for (String arg : args) shardFiles.add(Path.of(arg));
+        } else {
+            Path dir = file.toAbsolutePath().getParent();
+            String pattern = TestHistory.shardFile(file, 0).getFileName().toString().replace(".shard-0", ".shard-*");
+            if (Files.isDirectory(dir)) {
+                try (DirectoryStream<Path> found = Files.newDirectoryStream(dir, pattern)) {
+                    found.forEach(shardFiles::add);
+                }
+            }
+        }
+        int runs = TestHistory.merge(file, shardFiles);
+        System.out.printf("Merged %d runs from %d shard files into %s%n", runs, shardFiles.size(), file);
+    }
+}
@@ -0,0 +1,302 @@
+package org.navadiya.history;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-test run history, keyed by browser and test ({@code fully.qualified.Class#method}), stored as a small
+ * tab-separated file that is shared between runs, shards and agents (e.g. as a CI cache). Durations are an
+ * exponentially weighted moving average, so a few slow runs do not dominate; outcomes keep only the last
+ * {@value #OUTCOMES} runs as one letter each (P passed, F failed, R passed after a retry). Updates are merged
+ * into the current file under a file lock and written atomically; entries not touched by a run stay as they are.
+ * <p>
+ * History comes from {@code HistoryListener} (TestNG results of each run) and from Allure result files
+ * newer than the history file ({@link #importAllure(Path, Path)}), e.g. runs made without the listener.
+ * Sharded runs must all plan from the same history, so they leave the shared file alone: each shard records
+ * its results in its own {@link #shardFile(Path, int)}, and {@link #merge(Path, Collection)} adds those to the
+ * shared file once every shard of the job has finished.
+ */
+public final class TestHistory {
+    private static final Logger log = LoggerFactory.getLogger(TestHistory.class);
+
+    private static final String HEADER = "# navadiya test history: browser, test, duration ms (EWMA), runs, outcomes (oldest first)";
+    /** Weight of the newest run in the duration average. */
+    private static final double WEIGHT = 0.3;
+    /** Number of recent outcomes kept per test. */
+    public static final int OUTCOMES = 10;
+
+    /** How a run of a test ended, from best to worst. */
+    public enum Outcome {
+        PASSED('P'), RETRIED('R'), FAILED('F');
+
+        private final char code;
+
+        Outcome(char code) {
+            this.code = code;
+        }
+
+        static Outcome of(char code) {
+            for (Outcome o : values()) if (o.code == code) return o;
+            return null;
+        }
+    }
+
+    /** History of one test on one browser; outcomes are oldest first, e.g. "PPFRP". */
+    public record Entry(long durationMillis, int runs, String outcomes) {
+        Entry plus(Run run) {
+            long duration = runs == 0 ? run.durationMillis()
+                    : Math.round(WEIGHT * run.durationMillis() + (1 - WEIGHT) * durationMillis);
+            String recent = outcomes + run.outcome().code;
+            return new Entry(duration, runs + 1, recent.substring(Math.max(0, recent.length() - OUTCOMES)));
+        }
+
+        /** Outcome of the latest run, or null when none is recorded. */
+        public Outcome last() {
+            return outcomes.isEmpty() ? null : Outcome.of(outcomes.charAt(outcomes.length() - 1));
+        }
+
+        /** Recent runs that failed or only passed after a retry. */
+        public int unstableRuns() {
+            return (int) outcomes.chars().filter(c -> c != Outcome.PASSED.code).count();
+        }
+    }
+
+    /** One finished run of a test; durationMillis covers all its invocations (data provider rows, retries). */
+    public record Run(String browser, String test, long durationMillis, Outcome outcome) {
+        /** The combined run of two invocations of the same test: durations add up, the worse outcome wins. */
+        public Run and(Run other) {
+            Outcome worse = outcome.compareTo(other.outcome) >= 0 ? outcome : other.outcome;
+            return new Run(browser, test, durationMillis + other.durationMillis, worse);
+        }
+    }
+
+    private final Map<String, Entry> entries;
+
+    private TestHistory(Map<String, Entry> entries) {
+        this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    /** The history stored at file, or an empty history when the file does not exist or cannot be read. */
+    public static TestHistory load(Path file) {
+        try {
+            return new TestHistory(read(file));
+        } catch (IOException e) {
+            log.warn("Could not read test history {}: {}", file, e.getMessage());
+            return new TestHistory(new TreeMap<>());
+        }
+    }
+
+    /** Merge runs into the history at file. */
+    public static void update(Path file, Collection<Run> runs) {
+        if (runs.isEmpty()) return;
+        try {
+            add(file, runs);
+            log.info("Updated test history {} with {} runs", file, runs.size());
+        } catch (IOException e) {
+            log.warn("Could not update test history {}: {}", file, e.getMessage());
+        }
+    }
+
+    /** File that shard index of a sharded run records its results in, next to file (tests.tsv → tests.shard-0.tsv). */
+    public static Path shardFile(Path file, int index) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String shardName = dot > 0
+                ? name.substring(0, dot) + ".shard-" + index + name.substring(dot)
+                : name + ".shard-" + index;
+        return file.resolveSibling(shardName);
+    }
+
+    /**
+     * Add the runs recorded in shardFiles to the history at file, then delete the shard files so that a later
+     * merge does not count them again. Missing shard files are skipped. Returns the number of merged runs.
+     */
+    public static int merge(Path file, Collection<Path> shardFiles) {
+        List<Run> runs = new ArrayList<>();
+        List<Path> merged = new ArrayList<>();
+        for (Path shardFile : shardFiles) {
+            if (!Files.exists(shardFile)) continue;
+            try {
+                read(shardFile).forEach((key, entry) -> {
+                    int tab = key.indexOf('\t');
+                    // a shard file only holds this job's runs; each recorded outcome is one of them
+                    for (char code : entry.outcomes().toCharArray()) {
+                        Outcome outcome = Outcome.of(code);
+                        if (outcome != null) runs.add(new Run(key.substring(0, tab), key.substring(tab + 1), entry.durationMillis(), outcome));
+                    }
+                });
+                merged.add(shardFile);
+            } catch (IOException e) {
+                log.warn("Could not read shard history {}: {}", shardFile, e.getMessage());
+            }
+        }
+        try {
+            if (!runs.isEmpty()) add(file, runs);
+            for (Path shardFile : merged) Files.deleteIfExists(shardFile);
+        } catch (IOException e) {
+            log.warn("Could not merge shard histories into {}: {}", file, e.getMessage());
+            return 0;
+        }
+        log.info("Merged {} runs from {} shard histories into {}", runs.size(), merged.size(), file);
+        return runs.size();
+    }
+
+    private static void add(Path file, Collection<Run> runs) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path lockFile = parent.resolve(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            Map<String, Entry> entries = read(file);
+            for (Run run : runs) {
+                entries.merge(key(run.browser(), run.test()), new Entry(0, 0, "").plus(run), (old, fresh) -> old.plus(run));
+            }
+            write(file, entries);
+        }
+    }
+
+    /**
+     * Add Allure results in resultsDir written after the history file was last updated, so results the
+     * listener already recorded are not counted twice. Returns the number of imported runs.
+     */
+    public static int importAllure(Path resultsDir, Path file) {
+        if (!Files.isDirectory(resultsDir)) return 0;
+        long since;
+        try {
+            since = Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+        // latest result per test and parameter set (historyId), then summed per test
+        Map<String, JsonObject> latest = new HashMap<>();
+        try (Stream<Path> files = Files.list(resultsDir)) {
+            for (Path p : files.filter(f -> f.getFileName().toString().endsWith("-result.json")).toList()) {
+                if (Files.getLastModifiedTime(p).toMillis() <= since) continue;
+                JsonObject result = parseQuietly(p);
+                if (result == null || !result.has("fullName") || !result.has("start") || !result.has("stop")) continue;
+                String id = browserOf(result) + '\t' + string(result, "fullName") + '\t' + string(result, "historyId");
+                latest.merge(id, result, (a, b) -> b.get("stop").getAsLong() > a.get("stop").getAsLong() ? b : a);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read Allure results in {}: {}", resultsDir, e.getMessage());
+            return 0;
+        }
+        Map<String, Run> runs = new TreeMap<>();
+        for (JsonObject result : latest.values()) {
+            String fullName = string(result, "fullName");
+            int dot = fullName.lastIndexOf('.');
+            if (dot < 0) continue;
+            String test = fullName.substring(0, dot) + '#' + fullName.substring(dot + 1);
+            String browser = browserOf(result);
+            long millis = Math.max(0, result.get("stop").getAsLong() - result.get("start").getAsLong());
+            String status = string(result, "status");
+            if (status.equals("skipped")) continue;
+            Outcome outcome = status.equals("passed") ? Outcome.PASSED : Outcome.FAILED;
+            runs.merge(key(browser, test), new Run(browser, test, millis, outcome), Run::and);
+        }
+        update(file, runs.values());
+        return runs.size();
+    }
+
+    /** History of test on browser, or null when it has never run there. */
+    public Entry get(String browser, String test) {
+        return entries.get(key(browser, test));
+    }
+
+    /** Average duration of test on browser in milliseconds, or -1 when there is no history. */
+    public long durationMillis(String browser, String test) {
+        Entry e = get(browser, test);
+        return e == null ? -1 : e.durationMillis();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String key(String browser, String test) {
+        return browser + '\t' + test;
+    }
+
+    /** Allure TestNG results carry the suite name ("chrome-suite") as parentSuite; a browser parameter wins. */
+    private static String browserOf(JsonObject result) {
+        for (JsonElement p : array(result, "parameters")) {
+            JsonObject param = p.getAsJsonObject();
+            if ("browser".equals(string(param, "name"))) return string(param, "value");
+        }
+        for (JsonElement l : array(result, "labels")) {
+            JsonObject label = l.getAsJsonObject();
+            if ("parentSuite".equals(string(label, "name"))) return string(label, "value").replaceFirst("-suite$", "");
+        }
+        return "";
+    }
+
+    private static Iterable<JsonElement> array(JsonObject o, String name) {
+        return o.has(name) && o.get(name).isJsonArray() ? o.getAsJsonArray(name) : List.of();
+    }
+
+    private static String string(JsonObject o, String name) {
+        JsonElement e = o.get(name);
+        return e == null || e.isJsonNull() ? "" : e.getAsString();
+    }
+
+    private static JsonObject parseQuietly(Path p) {
+        try (Reader r = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
+            JsonElement e = JsonParser.parseReader(r);
+            return e.isJsonObject() ? e.getAsJsonObject() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Entry> read(Path file) throws IOException {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (!Files.exists(file)) return entries;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] f = line.split("\t");
+            if (f.length < 4) continue;
+            try {
+                entries.put(key(f[0], f[1]), new Entry(Long.parseLong(f[2]), Integer.parseInt(f[3]), f.length > 4 ? f[4] : ""));
+            } catch (NumberFormatException ignored) {
+                // skip a corrupt line rather than losing the whole history
+            }
+        }
+        return entries;
+    }
+
+    private static void write(Path file, Map<String, Entry> entries) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            w.write(HEADER);
+            w.newLine();
+            for (Map.Entry<String, Entry> e : new TreeMap<>(entries).entrySet()) {
+                Entry v = e.getValue();
+                w.write(e.getKey() + '\t' + v.durationMillis() + '\t' + v.runs() + '\t' + v.outcomes());
+                w.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,37 @@
+package org.navadiya.history;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Run order that surfaces regressions early: tests that failed in their latest run come first, then tests
+ * that were unstable recently (failed or needed a retry), then tests without history (new or renamed tests),
+ * then the rest. Within each group longer tests go first, so the tail of a parallel run is made of short
+ * tests that pack well onto idle threads.
+ */
+public final class TestOrder {
+
+    private TestOrder() {}
+
+    /** tests (Class#method) of browser in the order they should run. */
+    public static List<String> order(List<String> tests, TestHistory history, String browser) {
+        return tests.stream().sorted(comparator(history, browser)).toList();
+    }
+
+    public static Comparator<String> comparator(TestHistory history, String browser) {
+        return Comparator.<String>comparingInt(test -> group(history.get(browser, test)))
+                .thenComparing(test -> unstableRuns(history.get(browser, test)), Comparator.reverseOrder())
+                .thenComparing(test -> history.durationMillis(browser, test), Comparator.reverseOrder())
+                .thenComparing(Comparator.naturalOrder());
+    }
+
+    private static int group(TestHistory.Entry entry) {
+        if (entry == null) return 2;
+        if (entry.last() == TestHistory.Outcome.FAILED) return 0;
+        return entry.unstableRuns() > 0 ? 1 : 3;
+    }
+
+    private static int unstableRuns(TestHistory.Entry entry) {
+        return entry == null ? 0 : entry.unstableRuns();
+    }
+}
@@ -0,0 +1,61 @@
+package org.navadiya.history;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Splits test methods across shards so that all shards finish at about the same time. Tests with a known
+ * duration are placed longest first onto the least loaded shard (longest-processing-time scheduling);
+ * tests without history are then spread by count, each going to the shard with the fewest of them.
+ * <p>
+ * The plan only depends on the test list and the history, so every shard (another JVM or CI agent) computes
+ * the same plan and runs its own part of it without coordination.
+ */
+public final class TestShards {
+
+    /** Tests of one shard and their estimated total duration (tests without history count as zero). */
+    public record Shard(int index, List<String> tests, long estimatedMillis, int unknown) {}
+
+    private TestShards() {}
+
+    /**
+     * Plan count shards for tests. durations returns a test's expected duration in milliseconds, or a negative
+     * value when it has no history.
+     */
+    public static List<Shard> plan(List<String> tests, ToLongFunction<String> durations, int count) {
+        if (count < 1) throw new IllegalArgumentException("shard count must be at least 1: " + count);
+        List<String> known = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        for (String test : tests.stream().distinct().sorted().toList()) {
+            (durations.applyAsLong(test) >= 0 ? known : unknown).add(test);
+        }
+        known.sort(Comparator.comparingLong(durations::applyAsLong).reversed());
+
+        List<List<String>> assigned = new ArrayList<>();
+        long[] load = new long[count];
+        int[] unknownCount = new int[count];
+        for (int i = 0; i < count; i++) assigned.add(new ArrayList<>());
+
+        for (String test : known) {
+            int target = 0;
+            for (int i = 1; i < count; i++) if (load[i] < load[target]) target = i;
+            assigned.get(target).add(test);
+            load[target] += durations.applyAsLong(test);
+        }
+        for (String test : unknown) {
+            int target = 0;
+            for (int i = 1; i < count; i++) {
+                if (unknownCount[i] < unknownCount[target]
+                        || (unknownCount[i] == unknownCount[target] && load[i] < load[target])) target = i;
+            }
+            assigned.get(target).add(test);
+            unknownCount[target]++;
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) shards.add(new Shard(i, List.copyOf(assigned.get(i)), load[i], unknownCount[i]));
+        return shards;
+    }
+}
@@ -0,0 +1,112 @@
+package org.navadiya.metrics;
+
+import org.navadiya.config.ApplicationConfig;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lookup latency per locator, attributed to its owner: {@code Page.field} for page object elements, the
+ * calling {@code Class.method} for {@code WaitUtils} locator waits, {@code firstOf:<group>} for first-of
+ * candidates. Each lookup is recorded with the time it blocked (including the implicit wait for the
+ * element to appear) and whether it found anything. The suite-end report lists the locators that took
+ * the most time in total.
+ */
+public final class LocatorTimings {
+
+    private static final int MAX_KEYS = 2_000;
+    private static final String OVERFLOW = "other";
+    /** Frames in these packages (helpers and step aspects) are not owners of a locator. */
+    private static final List<String> HELPER_PACKAGES = List.of("org.navadiya.util.", "org.navadiya.metrics.",
+            "io.qameta.allure.", "org.aspectj.");
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private LocatorTimings() {}
+
+    /** Per-locator summary in milliseconds. */
+    public record Stats(String owner, String locator, long count, long failures, double totalMs,
+                        double p50Ms, double p95Ms, double maxMs) {}
+
+    private record Entry(String owner, String locator, LatencyHistogram histogram, LongAdder failures) {}
+
+    /** Record one lookup of locator by owner that blocked for nanos. */
+    public static void record(String owner, Object locator, boolean found, long nanos) {
+        if (!ApplicationConfig.isMetricsEnabled()) return;
+        String name = String.valueOf(locator);
+        String key = owner + '\u0000' + name;
+        Entry entry = ENTRIES.get(key);
+        if (entry == null) {
+            entry = ENTRIES.size() < MAX_KEYS
+                    ? ENTRIES.computeIfAbsent(key, k -> new Entry(owner, name, new LatencyHistogram(), new LongAdder()))
+                    : ENTRIES.computeIfAbsent(OVERFLOW, k -> new Entry(OVERFLOW, OVERFLOW, new LatencyHistogram(), new LongAdder()));
+        }
+        entry.histogram().record(nanos);
+        if (!found) entry.failures().increment();
+    }
+
+    /** Run lookup, recording it under owner; an exception counts as a failed lookup and is rethrown. */
+    public static <T> T time(String owner, Object locator, Supplier<T> lookup) {
+        long start = System.nanoTime();
+        boolean found = false;
+        try {
+            T result = lookup.get();
+            found = true;
+            return result;
+        } finally {
+            record(owner, locator, found, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * {@code SimpleClassName.method} of the nearest caller outside the util and metrics packages, used as
+     * owner for locators passed to shared helpers.
+     */
+    public static String caller() {
+        if (!ApplicationConfig.isMetricsEnabled()) return OVERFLOW;
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> HELPER_PACKAGES.stream().noneMatch(f.getClassName()::startsWith))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + f.getMethodName())
+                .orElse("unknown"));
+    }
+
+    /** All locators ranked by total lookup time. */
+    public static List<Stats> snapshot() {
+        return ENTRIES.values().stream()
+                .map(e -> {
+                    LatencyHistogram h = e.histogram();
+                    return new Stats(e.owner(), e.locator(), h.count(), e.failures().sum(), h.totalMillis(),
+                            h.percentileMillis(50), h.percentileMillis(95), h.maxMillis());
+                })
+                .sorted(Comparator.comparingDouble(Stats::totalMs).reversed())
+                .toList();
+    }
+
+    public static void reset() {
+        ENTRIES.clear();
+    }
+
+    /** Plain-text table of the slowest locators. */
+    public static String report(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-40s %-60s %7s %7s %11s %9s %9s %9s%n",
+                "owner", "locator", "count", "failed", "total ms", "p50", "p95", "max"));
+        snapshot().stream().limit(limit).forEach(s -> sb.append(String.format(Locale.ROOT,
+                "%-40s %-60s %7d %7d %11.1f %9.1f %9.1f %9.1f%n",
+                Timings.abbreviate(s.owner(), 40), Timings.abbreviate(s.locator(), 60), s.count(), s.failures(),
+                s.totalMs(), s.p50Ms(), s.p95Ms(), s.maxMs())));
+        return sb.toString();
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        return nested < 0 ? name : name.substring(0, nested);
+    }
+}
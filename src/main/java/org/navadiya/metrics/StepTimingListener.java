@@ -0,0 +1,23 @@
+package org.navadiya.metrics;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.StepResult;
+
+/**
+ * Allure lifecycle listener (registered through META-INF/services) that feeds every finished
+ * {@code @Step} / {@code Allure.step} into {@link Timings}. Parameter values are cut from the
+ * step name ("Enter email: a@b.c" becomes "Enter email") so histograms aggregate per step.
+ */
+public class StepTimingListener implements StepLifecycleListener {
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        Long start = result.getStart();
+        Long stop = result.getStop();
+        if (start == null || stop == null || result.getName() == null) return;
+        String name = result.getName();
+        int colon = name.indexOf(':');
+        if (colon > 0) name = name.substring(0, colon);
+        Timings.record("step:" + name.trim(), (stop - start) * 1_000_000L);
+    }
+}
@@ -0,0 +1,87 @@
+package org.navadiya.metrics;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResultContainer;
+import org.navadiya.config.ApplicationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Publishes suite-level reports to Allure and as files in {@code metrics.output.dir}, one per report, named
+ * {@code <suite>-<report>.<ext>} (e.g. {@code chrome-suite-top-time-sinks.txt}). Suite-end hooks run outside
+ * any test, so in Allure the reports are attachments of a "Suite metrics" tear-down fixture of a container
+ * around the suite's own container; it shows up in the tear down of the suite's tests and, unlike a test
+ * result, is not counted.
+ */
+public final class SuiteReports {
+    private static final Logger log = LoggerFactory.getLogger(SuiteReports.class);
+
+    private SuiteReports() {}
+
+    /** A single report attachment. */
+    public record Attachment(String name, String type, String extension, byte[] content) {
+        public static Attachment text(String name, String content) {
+            return new Attachment(name, "text/plain", "txt", content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Attachment json(String name, String content) {
+            return new Attachment(name, "application/json", "json", content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /** Publish attachments for suiteName, whose Allure container is suiteUuid (null when Allure is not running). */
+    public static void publish(String suiteName, String suiteUuid, List<Attachment> attachments) {
+        if (attachments.isEmpty()) return;
+        for (Attachment a : attachments) {
+            Path out = Path.of(ApplicationConfig.getMetricsOutputDir(), suiteName + "-" + slug(a.name()) + "." + a.extension());
+            try {
+                Files.createDirectories(out.getParent());
+                Files.write(out, a.content());
+                log.info("{} written: {}", a.name(), out);
+            } catch (IOException e) {
+                log.warn("Could not write {} {}: {}", a.name(), out, e.getMessage());
+            }
+        }
+        if (suiteUuid != null) attach(suiteName, suiteUuid, attachments);
+    }
+
+    private static void attach(String suiteName, String suiteUuid, List<Attachment> attachments) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String containerUuid = UUID.randomUUID().toString();
+        String fixtureUuid = UUID.randomUUID().toString();
+        try {
+            lifecycle.startTestContainer(new TestResultContainer()
+                    .setUuid(containerUuid)
+                    .setName(suiteName)
+                    .setChildren(new ArrayList<>(List.of(suiteUuid))));
+            lifecycle.startTearDownFixture(containerUuid, fixtureUuid, new FixtureResult()
+                    .setName("Suite metrics: " + suiteName)
+                    .setStatus(Status.PASSED));
+            for (Attachment a : attachments) {
+                lifecycle.addAttachment(a.name(), a.type(), a.extension(), a.content());
+            }
+            lifecycle.stopFixture(fixtureUuid);
+            lifecycle.stopTestContainer(containerUuid);
+            lifecycle.writeTestContainer(containerUuid);
+        } catch (Exception e) {
+            log.warn("Could not publish suite metrics to Allure: {}", e.getMessage());
+        }
+    }
+
+    /** "Top time sinks" → "top-time-sinks". */
+    static String slug(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+}
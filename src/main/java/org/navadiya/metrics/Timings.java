@@ -0,0 +1,147 @@
+package org.navadiya.metrics;
+
+import com.google.gson.GsonBuilder;
+import org.navadiya.config.ApplicationConfig;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Suite-wide registry of per-name latency histograms for steps ({@code step:}), waits ({@code wait:})
+ * and WebDriver commands ({@code cmd:}). Disable with metrics.enabled=false.
+ */
+public final class Timings {
+    private static final Logger log = LoggerFactory.getLogger(Timings.class);
+
+    /** Distinct names tracked before new ones are folded into a single overflow histogram. */
+    private static final int MAX_NAMES = 2_000;
+    private static final String OVERFLOW = "other";
+
+    private static final Pattern SESSION_ID = Pattern.compile("/session/[^/]+");
+    private static final Pattern ELEMENT_ID = Pattern.compile("/(element|shadow)/(?!active)[^/]+");
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private Timings() {}
+
+    /** Per-name summary in milliseconds. */
+    public record Stats(String name, long count, double totalMs, double p50Ms, double p95Ms, double p99Ms, double maxMs) {}
+
+    /** Record the time elapsed since startNanos (a {@link System#nanoTime()} value) under name. */
+    public static void recordSince(String name, long startNanos) {
+        record(name, System.nanoTime() - startNanos);
+    }
+
+    public static void record(String name, long nanos) {
+        if (!ApplicationConfig.isMetricsEnabled()) return;
+        LatencyHistogram h = HISTOGRAMS.get(name);
+        if (h == null) {
+            String key = HISTOGRAMS.size() < MAX_NAMES ? name : OVERFLOW;
+            h = HISTOGRAMS.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        h.record(nanos);
+    }
+
+    public static <T> T time(String name, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            recordSince(name, start);
+        }
+    }
+
+    public static void time(String name, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            recordSince(name, start);
+        }
+    }
+
+    /**
+     * HTTP client filter that times every WebDriver command. Session and element ids are collapsed
+     * so commands aggregate by endpoint, e.g. {@code cmd:POST /session/{id}/element/{id}/click}.
+     */
+    public static Filter commandFilter() {
+        return next -> (HttpHandler) request -> {
+            long start = System.nanoTime();
+            try {
+                return next.execute(request);
+            } finally {
+                recordSince("cmd:" + request.getMethod() + " " + commandPath(request.getUri()), start);
+            }
+        };
+    }
+
+    static String commandPath(String uri) {
+        String path = SESSION_ID.matcher(uri).replaceFirst("/session/{id}");
+        return ELEMENT_ID.matcher(path).replaceAll("/$1/{id}");
+    }
+
+    /** All histograms sorted by total time spent, largest first. */
+    public static List<Stats> snapshot() {
+        return HISTOGRAMS.entrySet().stream()
+                .map(e -> {
+                    LatencyHistogram h = e.getValue();
+                    return new Stats(e.getKey(), h.count(), h.totalMillis(), h.percentileMillis(50),
+                            h.percentileMillis(95), h.percentileMillis(99), h.maxMillis());
+                })
+                .sorted(Comparator.comparingDouble(Stats::totalMs).reversed())
+                .toList();
+    }
+
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    /** JSON summary of all histograms, keyed by name. */
+    public static String toJson() {
+        Map<String, Stats> byName = new LinkedHashMap<>();
+        for (Stats s : snapshot()) byName.put(s.name(), s);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(byName);
+    }
+
+    /** Plain-text table of the top time sinks. */
+    public static String topSinks(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-70s %8s %12s %10s %10s %10s %10s%n",
+                "name", "count", "total ms", "p50", "p95", "p99", "max"));
+        snapshot().stream().limit(limit).forEach(s -> sb.append(String.format(Locale.ROOT,
+                "%-70s %8d %12.1f %10.1f %10.1f %10.1f %10.1f%n",
+                abbreviate(s.name(), 70), s.count(), s.totalMs(), s.p50Ms(), s.p95Ms(), s.p99Ms(), s.maxMs())));
+        return sb.toString();
+    }
+
+    /** Write the JSON summary to {@code <metrics.output.dir>/<fileName>} and return its path. */
+    public static Path writeJson(String fileName) {
+        Path out = Path.of(ApplicationConfig.getMetricsOutputDir(), fileName);
+        try {
+            Files.createDirectories(out.getParent());
+            Files.writeString(out, toJson(), StandardCharsets.UTF_8);
+            log.info("Latency summary written: {}", out);
+        } catch (IOException e) {
+            log.warn("Could not write latency summary {}: {}", out, e.getMessage());
+        }
+        return out;
+    }
+
+    static String abbreviate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 3) + "...";
+    }
+}
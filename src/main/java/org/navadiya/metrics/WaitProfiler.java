@@ -0,0 +1,118 @@
+package org.navadiya.metrics;
+
+import org.navadiya.config.ApplicationConfig;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the outcome of every wait (success, timeout, or a timeout the caller swallowed) together with
+ * the wall-clock time it blocked, keyed by wait (condition + locator). The suite-end report ranks waits by
+ * the time burned in timeouts, which points at waits that are deliberately allowed to run to the limit.
+ *
+ * <p>Waits report success or timeout themselves; a caller that catches and ignores the timeout calls
+ * {@link #markLastSwallowed()} so the record is reclassified.
+ */
+public final class WaitProfiler {
+
+    private static final int MAX_KEYS = 2_000;
+    private static final String OVERFLOW = "other";
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    /** The current thread's most recent timeout, until it is swallowed or another wait completes. */
+    private static final ThreadLocal<Timeout> LAST_TIMEOUT = new ThreadLocal<>();
+
+    private WaitProfiler() {}
+
+    public enum Outcome { SUCCESS, TIMEOUT, SWALLOWED }
+
+    /** Per-wait summary; wasted time is the time spent in timeouts (thrown or swallowed). */
+    public record Stats(String key, long success, long timeouts, long swallowed, double totalMs, double wastedMs, double maxMs) {}
+
+    private record Timeout(Entry entry, long nanos) {}
+
+    private static final class Entry {
+        final LongAdder[] counts = {new LongAdder(), new LongAdder(), new LongAdder()};
+        final LongAdder[] nanos = {new LongAdder(), new LongAdder(), new LongAdder()};
+        volatile long maxNanos;
+
+        void add(Outcome outcome, long n) {
+            counts[outcome.ordinal()].increment();
+            nanos[outcome.ordinal()].add(n);
+            if (n > maxNanos) maxNanos = n;
+        }
+
+        void move(Outcome from, Outcome to, long n) {
+            counts[from.ordinal()].decrement();
+            nanos[from.ordinal()].add(-n);
+            counts[to.ordinal()].increment();
+            nanos[to.ordinal()].add(n);
+        }
+    }
+
+    public static void success(String key, long startNanos) {
+        record(key, Outcome.SUCCESS, System.nanoTime() - startNanos);
+    }
+
+    public static void timeout(String key, long startNanos) {
+        record(key, Outcome.TIMEOUT, System.nanoTime() - startNanos);
+    }
+
+    public static void record(String key, Outcome outcome, long nanos) {
+        if (!ApplicationConfig.isMetricsEnabled()) return;
+        Entry entry = ENTRIES.get(key);
+        if (entry == null) {
+            entry = ENTRIES.computeIfAbsent(ENTRIES.size() < MAX_KEYS ? key : OVERFLOW, k -> new Entry());
+        }
+        entry.add(outcome, nanos);
+        if (outcome == Outcome.TIMEOUT) {
+            LAST_TIMEOUT.set(new Timeout(entry, nanos));
+        } else {
+            LAST_TIMEOUT.remove();
+        }
+    }
+
+    /** Reclassify the current thread's last timeout as swallowed; no-op if the last wait did not time out. */
+    public static void markLastSwallowed() {
+        Timeout last = LAST_TIMEOUT.get();
+        if (last == null) return;
+        LAST_TIMEOUT.remove();
+        last.entry().move(Outcome.TIMEOUT, Outcome.SWALLOWED, last.nanos());
+    }
+
+    /** All waits ranked by wasted time, then total time. */
+    public static List<Stats> snapshot() {
+        return ENTRIES.entrySet().stream()
+                .map(e -> {
+                    Entry en = e.getValue();
+                    long ok = en.nanos[0].sum(), to = en.nanos[1].sum(), sw = en.nanos[2].sum();
+                    return new Stats(e.getKey(), en.counts[0].sum(), en.counts[1].sum(), en.counts[2].sum(),
+                            (ok + to + sw) / 1e6, (to + sw) / 1e6, en.maxNanos / 1e6);
+                })
+                .sorted(Comparator.comparingDouble(Stats::wastedMs).thenComparingDouble(Stats::totalMs).reversed())
+                .toList();
+    }
+
+    public static void reset() {
+        ENTRIES.clear();
+    }
+
+    /** Plain-text ranking of the waits that burned the most wall-clock time. */
+    public static String report(int limit) {
+        List<Stats> stats = snapshot();
+        double wasted = stats.stream().mapToDouble(Stats::wastedMs).sum();
+        double total = stats.stream().mapToDouble(Stats::totalMs).sum();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Waits blocked %.1f s in total, %.1f s of it in timeouts%n%n", total / 1000, wasted / 1000));
+        sb.append(String.format(Locale.ROOT, "%-70s %8s %8s %9s %12s %12s %10s%n",
+                "wait", "ok", "timeout", "swallowed", "wasted ms", "total ms", "max ms"));
+        stats.stream().limit(limit).forEach(s -> sb.append(String.format(Locale.ROOT,
+                "%-70s %8d %8d %9d %12.1f %12.1f %10.1f%n",
+                Timings.abbreviate(s.key(), 70), s.success(), s.timeouts(), s.swallowed(), s.wastedMs(), s.totalMs(), s.maxMs())));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,314 @@
+package org.navadiya.pages;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.Step;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.StepResult;
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.util.ObserverWait;
+import org.navadiya.util.WaitUtils;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Opt-in batched execution of page object steps. While a batch is open, clicks and (non-human) typing issued
+ * through {@link BasePage#queueClick} / {@link BasePage#queueType} are recorded instead of executed, and the
+ * whole chain runs in one async script: each action waits in the page for its element, then clicks it or sets
+ * its value with input/change events. Every recorded action is reported as its own Allure step (named after
+ * the calling {@code @Step} method) with its in-page duration; a failing action fails its step, skips the
+ * rest and is rethrown.
+ *
+ * <pre>
+ * try (ActionBatch ignored = ActionBatch.begin(driver)) {
+ *     new LoginPage(driver).clickConsent().clickMyAccount().clickSignIn().enterEmail(email);
+ * }
+ * </pre>
+ *
+ * The batch is flushed when it is closed, before any page object element is accessed, and before an action
+ * that cannot be scripted. Clicks are JavaScript clicks (no pointer hit-testing), like the JS fallback of
+ * {@code safeClick}. A click that navigates ends the script; progress is kept in sessionStorage and the rest
+ * of the chain resumes on the new page (same origin). sessionStorage is per origin, so after a cross-origin
+ * navigation the progress is gone: the batch fails with every step of the interrupted chain marked broken,
+ * because which of them ran is unknown. Close the batch before a click that leaves the origin.
+ */
+public final class ActionBatch implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ActionBatch.class);
+
+    private static final ThreadLocal<ActionBatch> CURRENT = new ThreadLocal<>();
+    private static final String PROGRESS_KEY = "__navadiyaBatch";
+    /** Driver messages (lower case) for a script whose document was unloaded or replaced, i.e. a navigation. */
+    private static final List<String> UNLOADED = List.of(
+            "document unloaded", "document was unloaded", "navigated or closed", "execution context was destroyed",
+            "cannot find context with specified id");
+
+    private static final String SCRIPT = String.join("\n",
+            "var actions = arguments[0], done = arguments[arguments.length - 1];",
+            "var KEY = '" + PROGRESS_KEY + "', results = [], i = 0;",
+            "function mark() { try { sessionStorage.setItem(KEY, String(i)); } catch (e) {} }",
+            "function find(t) {",
+            "  if (t[0] === 'xpath') return document.evaluate(t[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  return document.querySelector(t[1]);",
+            "}",
+            "function ready(el) {",
+            "  if (!el || !el.isConnected || el.nodeType !== 1 || el.disabled || el.getAttribute('aria-disabled') === 'true') return false;",
+            "  var s = window.getComputedStyle(el);",
+            "  if (s.display === 'none' || s.visibility === 'hidden' || s.visibility === 'collapse' || parseFloat(s.opacity) === 0) return false;",
+            "  var r = el.getBoundingClientRect();",
+            "  return r.width > 0 && r.height > 0;",
+            "}",
+            "function setValue(el, value) {",
+            "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;",
+            "  var desc = Object.getOwnPropertyDescriptor(proto, 'value');",
+            "  el.focus();",
+            "  if (desc && desc.set && (el instanceof HTMLInputElement || el instanceof HTMLTextAreaElement)) desc.set.call(el, value); else el.value = value;",
+            "  el.dispatchEvent(new Event('input', {bubbles: true}));",
+            "  el.dispatchEvent(new Event('change', {bubbles: true}));",
+            "}",
+            "function finish() { try { sessionStorage.removeItem(KEY); } catch (e) {} done(results); }",
+            "function run() {",
+            "  if (i >= actions.length) { finish(); return; }",
+            "  var a = actions[i], start = performance.now();",
+            "  (function attempt() {",
+            "    var el = null;",
+            "    try { el = find(a.target); } catch (e) {}",
+            "    if (ready(el)) {",
+            "      try {",
+            "        el.scrollIntoView({block: 'center'});",
+            "        if (a.kind === 'click') el.click(); else setValue(el, a.value);",
+            "      } catch (e) {",
+            "        results.push({ok: false, ms: performance.now() - start, error: String(e && e.message || e)});",
+            "        finish(); return;",
+            "      }",
+            "      results.push({ok: true, ms: performance.now() - start});",
+            "      i++; mark();",
+            "      setTimeout(run, 0);",
+            "      return;",
+            "    }",
+            "    if (performance.now() - start > a.timeout) {",
+            "      results.push({ok: false, timeout: true, ms: performance.now() - start,",
+            "        error: el ? 'element not interactable' : 'element not found'});",
+            "      finish(); return;",
+            "    }",
+            "    setTimeout(attempt, 50);",
+            "  })();",
+            "}",
+            "mark(); run();");
+
+    private final WebDriver driver;
+    private final List<Action> pending = new ArrayList<>();
+    private boolean flushing;
+
+    /** A recorded step; target is [mode, selector] for the page script. */
+    private record Action(String step, String kind, List<String> target, String value) {}
+
+    private ActionBatch(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Open a batch for driver on the current thread.
+     *
+     * @throws IllegalStateException when a batch is already open on this thread
+     */
+    public static ActionBatch begin(WebDriver driver) {
+        if (CURRENT.get() != null) throw new IllegalStateException("An ActionBatch is already open on this thread");
+        ActionBatch batch = new ActionBatch(driver);
+        CURRENT.set(batch);
+        return batch;
+    }
+
+    /** The batch open on this thread for driver, if any. */
+    static Optional<ActionBatch> current(WebDriver driver) {
+        ActionBatch batch = CURRENT.get();
+        return (batch != null && batch.driver == driver && !batch.flushing) ? Optional.of(batch) : Optional.empty();
+    }
+
+    /** Run the actions queued on this thread, if any. */
+    static void flushPending() {
+        ActionBatch batch = CURRENT.get();
+        if (batch != null && !batch.flushing && !batch.pending.isEmpty()) batch.flush();
+    }
+
+    /**
+     * Queue an action; returns false (after flushing what is queued) when the locator cannot be scripted,
+     * in which case the caller executes the action itself.
+     */
+    boolean add(String kind, By by, String value) {
+        List<String> target = scriptTarget(by);
+        if (target == null) {
+            flush();
+            return false;
+        }
+        pending.add(new Action(stepName(kind, by), kind, target, value));
+        return true;
+    }
+
+    /** Execute the queued actions in one script call and report them as Allure steps. */
+    public void flush() {
+        if (pending.isEmpty() || flushing) return;
+        List<Action> actions = new ArrayList<>(pending);
+        pending.clear();
+        flushing = true;
+        try {
+            int from = 0;
+            while (from < actions.size()) {
+                from = runFrom(actions, from);
+            }
+        } finally {
+            flushing = false;
+        }
+    }
+
+    /** Run actions[from..] in one script; returns the index to resume from after a navigation. */
+    private int runFrom(List<Action> actions, int from) {
+        List<Action> chunk = actions.subList(from, actions.size());
+        int timeoutMs = ApplicationConfig.getTimeoutSeconds() * 1000;
+        List<Map<String, Object>> spec = chunk.stream()
+                .map(a -> Map.<String, Object>of("kind", a.kind(), "target", a.target(),
+                        "value", a.value() == null ? "" : a.value(), "timeout", timeoutMs))
+                .toList();
+        ObserverWait.ensureScriptTimeout(driver, Duration.ofMillis((long) timeoutMs * chunk.size()));
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, spec);
+        } catch (WebDriverException e) {
+            // a click that navigated away unloads the script: resume from the stored progress; anything else
+            // (script timeout, dead session, ...) fails the batch where it stands
+            int completed = unloaded(e) ? completedAfterNavigation() : 0;
+            if (completed < 0) {
+                // no progress on the new page, usually because another origin has its own sessionStorage: which
+                // actions ran before the navigation is unknown, so all of them are marked broken alike
+                String message = "Batch progress lost after navigation (another origin?); outcome unknown";
+                for (Action action : chunk) reportStep(action.step(), Status.BROKEN, -1, message);
+                throw new WebDriverException("Batched steps '" + chunk.get(0).step() + "' .. '"
+                        + chunk.get(chunk.size() - 1).step() + "' lost their progress after a navigation; end the batch "
+                        + "before cross-origin navigations", e);
+            }
+            if (completed == 0) {
+                report(chunk, List.of(), e.getMessage());
+                throw new WebDriverException("Batched steps interrupted at '" + chunk.get(0).step() + "'", e);
+            }
+            log.debug("Batch interrupted by navigation after {} of {} actions, resuming", completed, chunk.size());
+            for (int i = 0; i < completed; i++) reportStep(chunk.get(i).step(), Status.PASSED, -1, null);
+            return from + completed;
+        }
+        List<?> results = result instanceof List<?> list ? list : List.of();
+        report(chunk, results, null);
+        if (results.size() == chunk.size() && results.stream().allMatch(r -> Boolean.TRUE.equals(((Map<?, ?>) r).get("ok")))) {
+            return actions.size();
+        }
+        Map<?, ?> failure = results.isEmpty() ? Map.of() : (Map<?, ?>) results.get(results.size() - 1);
+        Action failed = chunk.get(Math.max(0, results.size() - 1));
+        String message = "Batched step '" + failed.step() + "' failed: " + failure.get("error");
+        throw Boolean.TRUE.equals(failure.get("timeout")) ? new TimeoutException(message) : new WebDriverException(message);
+    }
+
+    /** Whether the script failed because its document was unloaded, i.e. a batched click navigated. */
+    private static boolean unloaded(WebDriverException e) {
+        if (e instanceof ScriptTimeoutException) return false;
+        String message = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
+        return UNLOADED.stream().anyMatch(message::contains);
+    }
+
+    /** Actions completed before the navigation, from the stored progress, or -1 when the new page has none. */
+    private int completedAfterNavigation() {
+        try {
+            WaitUtils.waitForPageLoad(driver, Duration.ofSeconds(ApplicationConfig.getTimeoutSeconds()));
+            Object stored = ((JavascriptExecutor) driver).executeScript(
+                    "var v = null; try { v = sessionStorage.getItem(arguments[0]); sessionStorage.removeItem(arguments[0]); } catch (e) {} return v;",
+                    PROGRESS_KEY);
+            return stored == null ? -1 : Integer.parseInt(stored.toString());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /** One Allure step per action: passed, failed (with the page error) or skipped. */
+    private void report(List<Action> chunk, List<?> results, String error) {
+        boolean failedSeen = false;
+        for (int i = 0; i < chunk.size(); i++) {
+            Action action = chunk.get(i);
+            if (i < results.size()) {
+                Map<?, ?> r = (Map<?, ?>) results.get(i);
+                boolean ok = Boolean.TRUE.equals(r.get("ok"));
+                long ms = r.get("ms") instanceof Number n ? n.longValue() : -1;
+                failedSeen |= !ok;
+                reportStep(action.step(), ok ? Status.PASSED : Status.FAILED, ms, ok ? null : String.valueOf(r.get("error")));
+            } else if (!failedSeen && error != null) {
+                failedSeen = true;
+                reportStep(action.step(), Status.BROKEN, -1, error);
+            } else {
+                reportStep(action.step(), Status.SKIPPED, -1, null);
+            }
+        }
+    }
+
+    private static void reportStep(String name, Status status, long durationMs, String message) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        if (lifecycle.getCurrentTestCaseOrStep().isEmpty()) return;
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.startStep(uuid, new StepResult().setName(name));
+        lifecycle.updateStep(uuid, s -> {
+            s.setStatus(status);
+            if (durationMs >= 0) s.setStart(System.currentTimeMillis() - durationMs);
+            if (message != null) s.setStatusDetails(new StatusDetails().setMessage(message));
+        });
+        lifecycle.stopStep(uuid);
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            pending.clear();
+            CURRENT.remove();
+        }
+    }
+
+    /** [mode, selector] for by when an in-page script can evaluate it ("css" or "xpath"), else null. */
+    static List<String> scriptTarget(By by) {
+        if (by instanceof LocatorOptimizer.TextFinder finder) return List.of("xpath", finder.xpath());
+        if (!(by instanceof By.Remotable remotable)) return null;
+        By.Remotable.Parameters params = remotable.getRemoteParameters();
+        if (!(params.value() instanceof String value)) return null;
+        return switch (params.using()) {
+            case "css selector" -> List.of("css", value);
+            case "xpath" -> List.of("xpath", value);
+            default -> null;
+        };
+    }
+
+    /** Name of the nearest calling {@code @Step} method, so batched actions map back to their steps. */
+    private static String stepName(String kind, By by) {
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).walk(frames -> frames
+                .map(f -> {
+                    try {
+                        Method m = f.getDeclaringClass().getDeclaredMethod(f.getMethodName(), f.getMethodType().parameterArray());
+                        Step step = m.getAnnotation(Step.class);
+                        return step == null ? null : (step.value().isEmpty() ? m.getName() : step.value());
+                    } catch (NoSuchMethodException | RuntimeException e) {
+                        return null;
+                    }
+                })
+                .filter(name -> name != null)
+                .findFirst()
+                .orElse(kind + " " + by));
+    }
+}
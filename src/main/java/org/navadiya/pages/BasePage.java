@@ -1,15 +1,16 @@
 package org.navadiya.pages;
 
 import org.navadiya.config.ApplicationConfig;
+import org.navadiya.util.InputSpeed;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.pagefactory.AjaxElementLocatorFactory;
+import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * BasePage provides common functionality for all page objects.
- * Uses AjaxElementLocatorFactory to handle dynamic element loading with intelligent waits.
+ * Elements are located like AjaxElementLocatorFactory does, waiting for dynamically loaded elements.
  */
 public abstract class BasePage {
     private static final Logger log = LoggerFactory.getLogger(BasePage.class);
@@ -17,37 +18,42 @@ public abstract class BasePage {
     protected WebDriver driver;
 
     /**
-     * Default timeout for AjaxElementLocatorFactory (in seconds)
-     */
-    private static final int DEFAULT_AJAX_TIMEOUT = 15;
-
-    /**
-     * Initialize page with AjaxElementLocatorFactory
+     * Initialize page with AjaxElementLocatorFactory-equivalent proxies. Field scanning and locator
+     * parsing are done once per page class (see {@link PageMetadata}).
      * @param driver WebDriver instance
      */
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        int timeout = getAjaxTimeout();
-        log.info("========================================");
-        log.info("Timeout configured: {} seconds", timeout);
-        PageFactory.initElements(new AjaxElementLocatorFactory(driver, timeout), this);
-        log.info("✅ AjaxElementLocatorFactory initialization completed for {}", this.getClass().getSimpleName());
+        int timeout = ApplicationConfig.getTimeoutSeconds();
+        PageMetadata.of(getClass()).initWeb(this, driver, timeout);
+        log.debug("Initialized {} (element timeout {} s)", getClass().getSimpleName(), timeout);
     }
 
     /**
-     * Get the AJAX timeout from application config or use default
-     * @return timeout in seconds
+     * Input speed profile for human-like typing on this page. Defaults to the configured profile for the
+     * current browser; override to pin a page (e.g. a bot-protected login form) to {@link InputSpeed#HUMAN}.
      */
-    private int getAjaxTimeout() {
-        try {
-            String timeoutStr = ApplicationConfig.getProperty("app.timeout.seconds");
-            if (timeoutStr != null && !timeoutStr.isEmpty()) {
-                return Integer.parseInt(timeoutStr);
-            }
-        } catch (Exception e) {
-            log.warn("Could not parse app.timeout.seconds, using default: {}", DEFAULT_AJAX_TIMEOUT);
-        }
-        return DEFAULT_AJAX_TIMEOUT;
+    protected InputSpeed inputSpeed() {
+        return InputSpeed.current();
+    }
+
+    /**
+     * Record a click on element in the thread's open {@link ActionBatch} instead of performing it.
+     * @return false when no batch is open or element cannot be batched; the caller then clicks itself
+     */
+    protected boolean queueClick(WebElement element) {
+        By by = PageMetadata.locatorOf(element);
+        return by != null && ActionBatch.current(driver).map(batch -> batch.add("click", by, null)).orElse(false);
     }
-}
 
+    /**
+     * Record setting element's value in the thread's open {@link ActionBatch}. Only non-human input speeds are
+     * batched, since a script cannot reproduce per-keystroke timing.
+     * @return false when the text was not queued; the caller then types itself
+     */
+    protected boolean queueType(WebElement element, CharSequence text) {
+        if (inputSpeed() == InputSpeed.HUMAN) return false;
+        By by = PageMetadata.locatorOf(element);
+        return by != null && ActionBatch.current(driver).map(batch -> batch.add("type", by, text.toString())).orElse(false);
+    }
+}
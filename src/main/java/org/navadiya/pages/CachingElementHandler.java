@@ -0,0 +1,55 @@
+package org.navadiya.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Element proxy handler. Like Selenium's LocatingElementHandler it locates the element for every call,
+ * but a {@link CachingElementLocator} usually answers from its cache; when the cached element is stale
+ * the call is retried once on a freshly located element. toString never triggers a lookup.
+ */
+final class CachingElementHandler implements InvocationHandler {
+
+    private final ElementLocator locator;
+    private final By by;
+
+    CachingElementHandler(ElementLocator locator, By by) {
+        this.locator = locator;
+        this.by = by;
+    }
+
+    /** Locator of the proxied field, without locating it. */
+    By by() {
+        return by;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+            return "Proxy element for: " + locator;
+        }
+        // any element access is a point where queued batch actions must have happened
+        ActionBatch.flushPending();
+        WebElement element = locator.findElement();
+        if ("getWrappedElement".equals(method.getName())) return element;
+        try {
+            return method.invoke(element, args);
+        } catch (InvocationTargetException e) {
+            if (!(e.getCause() instanceof StaleElementReferenceException) || !(locator instanceof CachingElementLocator caching)) {
+                throw e.getCause();
+            }
+            caching.invalidate();
+            try {
+                return method.invoke(locator.findElement(), args);
+            } catch (InvocationTargetException retry) {
+                throw retry.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.navadiya.pages;
+
+import org.navadiya.driver.NavigationTracker;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.AbstractAnnotations;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timed AjaxElementLocator that keeps the resolved element and hands it out again until the session navigates
+ * (tracked by {@link NavigationTracker}, no browser call needed) or the element turns out to be stale, in
+ * which case {@link CachingElementHandler} invalidates it and locates again. Lists are never cached.
+ */
+final class CachingElementLocator extends TimedElementLocator {
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder STALE = new LongAdder();
+
+    private final String sessionId;
+    private final String description;
+    private WebElement cached;
+    private long epoch;
+
+    CachingElementLocator(SearchContext context, int timeoutSeconds, AbstractAnnotations annotations, String owner,
+                          String sessionId) {
+        super(context, timeoutSeconds, annotations, owner);
+        this.sessionId = sessionId;
+        this.description = "AjaxElementLocator '" + annotations.buildBy() + "'";
+    }
+
+    @Override
+    public WebElement findElement() {
+        long current = NavigationTracker.epoch(sessionId);
+        WebElement element = cached;
+        if (element != null && epoch == current) {
+            HITS.increment();
+            return element;
+        }
+        MISSES.increment();
+        element = super.findElement();
+        cached = element;
+        epoch = current;
+        return element;
+    }
+
+    /** Drop the cached element after it was found stale. */
+    void invalidate() {
+        if (cached != null) STALE.increment();
+        cached = null;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /** One-line hit/miss summary across all pages since the last {@link #resetStats()}. */
+    static String stats() {
+        long hits = HITS.sum(), misses = MISSES.sum();
+        double rate = (hits + misses) == 0 ? 0 : 100.0 * hits / (hits + misses);
+        return String.format(Locale.ROOT, "Element cache: %d hits, %d misses (%.1f%% hit rate), %d stale re-locates",
+                hits, misses, rate, STALE.sum());
+    }
+
+    static void resetStats() {
+        HITS.reset();
+        MISSES.reset();
+        STALE.reset();
+    }
+}
@@ -0,0 +1,200 @@
+package org.navadiya.pages;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.navadiya.driver.NavigationTracker;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of the page for assertion-heavy code: the serialized DOM (or one subtree) is fetched in a
+ * single script call and CSS/XPath queries, texts and attributes are then evaluated locally with jsoup.
+ * Current form values (input value, checked, selected, textarea text) are copied into the serialized
+ * markup, so {@link #value(By)} reflects what the user typed.
+ * <p>
+ * The snapshot is tied to the session's command stream: any command that may change the page (click,
+ * typing, navigation, script execution, window/frame switch...) invalidates it, and the next query fetches
+ * the DOM again. Pending {@link ActionBatch} actions are flushed before fetching. Texts are whitespace-
+ * normalised text content and, unlike {@code WebElement.getText()}, include hidden elements.
+ *
+ * <pre>
+ * DomSnapshot page = DomSnapshot.of(driver);
+ * Assert.assertEquals(page.title(), "Choose Verification Type");
+ * Assert.assertTrue(page.exists(By.cssSelector("button[data-test-id='button-continue']")));
+ * </pre>
+ */
+public final class DomSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(DomSnapshot.class);
+
+    private static final String SERIALIZE = String.join("\n",
+            "var root = document.documentElement, t = arguments[0];",
+            "if (t) {",
+            "  root = t[0] === 'xpath'",
+            "    ? document.evaluate(t[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue",
+            "    : document.querySelector(t[1]);",
+            "  if (!root) return null;",
+            "}",
+            "var copy = root.cloneNode(true);",
+            "var live = root.querySelectorAll('input, textarea, select'), dup = copy.querySelectorAll('input, textarea, select');",
+            "for (var i = 0; i < live.length && i < dup.length; i++) {",
+            "  var l = live[i], d = dup[i];",
+            "  if (l.localName === 'select') {",
+            "    for (var j = 0; j < l.options.length && j < d.options.length; j++) {",
+            "      if (l.options[j].selected) d.options[j].setAttribute('selected', ''); else d.options[j].removeAttribute('selected');",
+            "    }",
+            "  } else if (l.type === 'checkbox' || l.type === 'radio') {",
+            "    if (l.checked) d.setAttribute('checked', ''); else d.removeAttribute('checked');",
+            "  } else if (l.localName === 'textarea') {",
+            "    d.textContent = l.value;",
+            "  } else if (l.type !== 'password') {",
+            "    d.setAttribute('value', l.value);",
+            "  }",
+            "}",
+            "return {html: copy.outerHTML, title: document.title, url: location.href};");
+
+    private final WebDriver driver;
+    private final By scope;
+    private final List<String> scopeTarget;
+    private final String session;
+
+    private Document document;
+    private String title;
+    private String url;
+    private long mutations = -1;
+
+    private DomSnapshot(WebDriver driver, By scope) {
+        this.driver = driver;
+        this.scope = scope;
+        this.scopeTarget = scope == null ? null : ActionBatch.scriptTarget(scope);
+        if (scope != null && scopeTarget == null) {
+            throw new IllegalArgumentException("Snapshot scope must be a CSS or XPath locator: " + scope);
+        }
+        this.session = NavigationTracker.sessionOf(driver);
+    }
+
+    /** Snapshot of the whole document. */
+    public static DomSnapshot of(WebDriver driver) {
+        return new DomSnapshot(driver, null).fetch();
+    }
+
+    /** Snapshot of the first element matching scope (CSS or XPath) and its subtree. */
+    public static DomSnapshot of(WebDriver driver, By scope) {
+        return new DomSnapshot(driver, scope).fetch();
+    }
+
+    /**
+     * Whether no page-changing command was sent since the snapshot was taken. Always false for drivers
+     * whose command stream is not tracked, so those re-fetch on every query.
+     */
+    public boolean isCurrent() {
+        return session != null && NavigationTracker.mutations(session) == mutations;
+    }
+
+    /** Fetch the DOM again now. */
+    public DomSnapshot refresh() {
+        return fetch();
+    }
+
+    public String title() {
+        document();
+        return title;
+    }
+
+    public String url() {
+        document();
+        return url;
+    }
+
+    public boolean exists(By by) {
+        return !select(by).isEmpty();
+    }
+
+    public int count(By by) {
+        return select(by).size();
+    }
+
+    /** Normalised text of the first match. */
+    public String text(By by) {
+        return first(by).text();
+    }
+
+    /** Normalised texts of all matches, in document order. */
+    public List<String> texts(By by) {
+        return select(by).eachText();
+    }
+
+    /** Attribute value of the first match, or null when it has no such attribute. */
+    public String attribute(By by, String name) {
+        Element element = first(by);
+        return element.hasAttr(name) ? element.attr(name) : null;
+    }
+
+    /** Current form value of the first match (password values are not captured). */
+    public String value(By by) {
+        Element element = first(by);
+        return element.normalName().equals("textarea") ? element.wholeText() : element.attr("value");
+    }
+
+    private Element first(By by) {
+        Elements found = select(by);
+        if (found.isEmpty()) throw new NoSuchElementException("No element in DOM snapshot matching " + by);
+        return found.first();
+    }
+
+    private Elements select(By by) {
+        Document doc = document();
+        if (by instanceof LocatorOptimizer.TextFinder finder) return doc.selectXpath(finder.xpath());
+        if (by instanceof By.Remotable remotable) {
+            By.Remotable.Parameters params = remotable.getRemoteParameters();
+            String value = String.valueOf(params.value());
+            switch (params.using()) {
+                case "css selector":
+                    return doc.select(value);
+                case "xpath":
+                    return doc.selectXpath(value);
+                case "tag name":
+                    return doc.getElementsByTag(value);
+                case "link text":
+                    return doc.select("a").stream().filter(a -> a.text().equals(value.trim()))
+                            .collect(Elements::new, Elements::add, Elements::addAll);
+                case "partial link text":
+                    return doc.select("a").stream().filter(a -> a.text().contains(value))
+                            .collect(Elements::new, Elements::add, Elements::addAll);
+                default:
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("Locator not supported by DOM snapshots: " + by);
+    }
+
+    private Document document() {
+        if (!isCurrent()) {
+            log.debug("DOM snapshot invalidated by a page-changing command, fetching again");
+            fetch();
+        }
+        return document;
+    }
+
+    private DomSnapshot fetch() {
+        ActionBatch.flushPending();
+        Object result = ((JavascriptExecutor) driver).executeScript(SERIALIZE, scopeTarget);
+        // read after the call: the snapshot script itself counts as a (potentially) mutating command
+        mutations = NavigationTracker.mutations(session);
+        if (!(result instanceof Map<?, ?> map)) {
+            throw new NoSuchElementException("Snapshot scope not found: " + scope);
+        }
+        url = String.valueOf(map.get("url"));
+        title = String.valueOf(map.get("title"));
+        document = Jsoup.parse(String.valueOf(map.get("html")), url);
+        return this;
+    }
+}
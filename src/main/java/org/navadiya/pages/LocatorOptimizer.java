@@ -0,0 +1,270 @@
+package org.navadiya.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles {@code @FindBy} XPath locators into faster equivalents when their semantics allow it. Supported
+ * is a union of {@code //tag[...]} steps whose predicates combine (with and/or) {@code normalize-space()='x'},
+ * {@code .='x'} and {@code @attr='x'}:
+ * <ul>
+ *   <li>attribute-only predicates become a CSS selector list (same elements, same document order);</li>
+ *   <li>text predicates become one injected script that scans the candidate tags once and compares the
+ *       whitespace-normalised text content, instead of evaluating each union branch over the whole document.</li>
+ * </ul>
+ * Anything else is returned unchanged.
+ */
+public final class LocatorOptimizer {
+    private static final Logger log = LoggerFactory.getLogger(LocatorOptimizer.class);
+
+    private static final String FINDER = String.join("\n",
+            "var branches = arguments[0], first = arguments[1];",
+            "var tags = [];",
+            "for (var i = 0; i < branches.length; i++) {",
+            "  if (branches[i].tag === '*') { tags = ['*']; break; }",
+            "  if (tags.indexOf(branches[i].tag) < 0) tags.push(branches[i].tag);",
+            "}",
+            // normalize-space() only collapses XML whitespace (space, tab, CR, LF)
+            "function norm(s) { return s.replace(/[ \\t\\r\\n]+/g, ' ').replace(/^ | $/g, ''); }",
+            "function atom(el, a) {",
+            "  if (a[0] === 'norm') return norm(el.textContent) === a[1];",
+            "  if (a[0] === 'string') return el.textContent === a[1];",
+            "  return el.getAttribute(a[1]) === a[2];",
+            "}",
+            "function branch(el, b) {",
+            "  if (b.tag !== '*' && el.localName !== b.tag) return false;",
+            "  if (b.any.length === 0) return true;",
+            "  for (var i = 0; i < b.any.length; i++) {",
+            "    var all = b.any[i], ok = true;",
+            "    for (var j = 0; j < all.length && ok; j++) ok = atom(el, all[j]);",
+            "    if (ok) return true;",
+            "  }",
+            "  return false;",
+            "}",
+            "var els = document.querySelectorAll(tags.join(',')), out = [];",
+            "for (var k = 0; k < els.length; k++) {",
+            "  for (var n = 0; n < branches.length; n++) {",
+            "    if (branch(els[k], branches[n])) { out.push(els[k]); break; }",
+            "  }",
+            "  if (first && out.length) break;",
+            "}",
+            "return out;");
+
+    private LocatorOptimizer() {}
+
+    /** One comparison: ["norm", text], ["string", text] or ["attr", name, value]. */
+    private record Atom(String kind, String name, String value) {
+        List<String> toScript() {
+            return kind.equals("attr") ? List.of(kind, name, value) : List.of(kind, value);
+        }
+    }
+
+    /** One {@code //tag[...]} step: the tag and its predicate in disjunctive normal form. */
+    private record Branch(String tag, List<List<Atom>> any) {
+        boolean attributeOnly() {
+            return any.stream().flatMap(List::stream).allMatch(a -> a.kind().equals("attr"));
+        }
+    }
+
+    /**
+     * Return a faster locator equivalent to by, or by itself when it is not an XPath the optimizer understands.
+     */
+    public static By optimize(By by) {
+        if (!(by instanceof By.Remotable remotable)) return by;
+        By.Remotable.Parameters params = remotable.getRemoteParameters();
+        if (!"xpath".equals(params.using()) || !(params.value() instanceof String xpath)) return by;
+        List<Branch> branches = new Parser(xpath).parse();
+        if (branches == null) return by;
+        By optimized = branches.stream().allMatch(Branch::attributeOnly)
+                ? By.cssSelector(toCss(branches))
+                : new TextFinder(xpath, branches);
+        log.debug("Optimized locator {} -> {}", by, optimized);
+        return optimized;
+    }
+
+    private static String toCss(List<Branch> branches) {
+        List<String> selectors = new ArrayList<>();
+        for (Branch b : branches) {
+            if (b.any().isEmpty()) {
+                selectors.add(b.tag());
+                continue;
+            }
+            for (List<Atom> all : b.any()) {
+                StringBuilder sb = new StringBuilder(b.tag());
+                for (Atom a : all) {
+                    sb.append('[').append(a.name()).append("=\"")
+                            .append(a.value().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\a ")).append("\"]");
+                }
+                selectors.add(sb.toString());
+            }
+        }
+        return String.join(", ", selectors);
+    }
+
+    /** Locator backed by the injected text finder; falls back to the original XPath without a script context. */
+    static final class TextFinder extends By {
+        private final String xpath;
+        private final List<Map<String, Object>> spec;
+
+        TextFinder(String xpath, List<Branch> branches) {
+            this.xpath = xpath;
+            this.spec = branches.stream()
+                    .map(b -> Map.<String, Object>of("tag", b.tag(),
+                            "any", b.any().stream().map(all -> all.stream().map(Atom::toScript).toList()).toList()))
+                    .toList();
+        }
+
+        @Override
+        public WebElement findElement(SearchContext context) {
+            List<WebElement> found = find(context, true);
+            if (found.isEmpty()) throw new NoSuchElementException("Cannot locate an element using " + this);
+            return found.get(0);
+        }
+
+        @Override
+        public List<WebElement> findElements(SearchContext context) {
+            return find(context, false);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<WebElement> find(SearchContext context, boolean first) {
+            if (!(context instanceof JavascriptExecutor js)) return By.xpath(xpath).findElements(context);
+            Object result = js.executeScript(FINDER, spec, first);
+            return result instanceof List<?> list ? (List<WebElement>) list : List.of();
+        }
+
+        /** The XPath this finder was compiled from. */
+        String xpath() {
+            return xpath;
+        }
+
+        @Override
+        public String toString() {
+            return "By.textFinder: " + xpath;
+        }
+    }
+
+    /** Recursive-descent parser for the supported XPath subset; returns null on anything else. */
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        List<Branch> parse() {
+            try {
+                List<Branch> branches = new ArrayList<>();
+                do {
+                    branches.add(path());
+                } while (eat("|"));
+                skip();
+                return pos == s.length() ? branches : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private Branch path() {
+            expect("//");
+            String tag = eat("*") ? "*" : name().toLowerCase();
+            List<List<Atom>> any = new ArrayList<>();
+            if (eat("[")) {
+                any = or();
+                expect("]");
+            }
+            return new Branch(tag, any);
+        }
+
+        private List<List<Atom>> or() {
+            List<List<Atom>> any = new ArrayList<>();
+            do {
+                any.add(and());
+            } while (eatWord("or"));
+            return any;
+        }
+
+        private List<Atom> and() {
+            List<Atom> all = new ArrayList<>();
+            do {
+                all.add(atom());
+            } while (eatWord("and"));
+            return all;
+        }
+
+        private Atom atom() {
+            if (eat("normalize-space(")) {
+                eat(".");
+                expect(")");
+                expect("=");
+                return new Atom("norm", null, literal());
+            }
+            if (eat("@")) {
+                String attr = name();
+                expect("=");
+                return new Atom("attr", attr, literal());
+            }
+            if (eat(".")) {
+                expect("=");
+                return new Atom("string", null, literal());
+            }
+            throw new IllegalArgumentException("unsupported predicate at " + pos);
+        }
+
+        private String literal() {
+            skip();
+            if (pos >= s.length()) throw new IllegalArgumentException("literal expected");
+            char quote = s.charAt(pos);
+            if (quote != '\'' && quote != '"') throw new IllegalArgumentException("literal expected");
+            int end = s.indexOf(quote, pos + 1);
+            if (end < 0) throw new IllegalArgumentException("unterminated literal");
+            String value = s.substring(pos + 1, end);
+            pos = end + 1;
+            return value;
+        }
+
+        private String name() {
+            skip();
+            int start = pos;
+            while (pos < s.length() && (Character.isLetterOrDigit(s.charAt(pos)) || s.charAt(pos) == '-' || s.charAt(pos) == '_')) pos++;
+            if (start == pos || !Character.isLetter(s.charAt(start))) throw new IllegalArgumentException("name expected");
+            // namespaced names and axes (e.g. svg:path, child::) are not supported
+            if (pos < s.length() && s.charAt(pos) == ':') throw new IllegalArgumentException("qualified name");
+            return s.substring(start, pos);
+        }
+
+        private boolean eatWord(String word) {
+            skip();
+            if (!s.startsWith(word, pos)) return false;
+            int end = pos + word.length();
+            if (end < s.length() && (Character.isLetterOrDigit(s.charAt(end)) || s.charAt(end) == '-')) return false;
+            pos = end;
+            return true;
+        }
+
+        private boolean eat(String token) {
+            skip();
+            if (!s.startsWith(token, pos)) return false;
+            pos += token.length();
+            return true;
+        }
+
+        private void expect(String token) {
+            if (!eat(token)) throw new IllegalArgumentException("'" + token + "' expected at " + pos);
+        }
+
+        private void skip() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+    }
+}
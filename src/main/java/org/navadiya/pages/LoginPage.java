@@ -1,6 +1,7 @@
 package org.navadiya.pages;
 
 import io.qameta.allure.Step;
+import org.navadiya.util.InputSpeed;
 import org.navadiya.util.WaitUtils;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
@@ -48,9 +49,10 @@ public class LoginPage extends BasePage {
     }
 
     /**
-     * Safe click with JavaScript fallback
+     * Safe click with JavaScript fallback. Queued instead when an {@link ActionBatch} is open.
      */
     private void safeClick(WebElement element) {
+        if (queueClick(element)) return;
         WaitUtils.waitForClickable(driver, element, Duration.ofSeconds(15));
         try {
             element.click();
@@ -61,24 +63,18 @@ public class LoginPage extends BasePage {
     }
 
     /**
-     * Safe send keys with JavaScript fallback
+     * Safe send keys with JavaScript fallback. Human-like input follows the page's {@link #inputSpeed()} profile.
      */
     private void safeSendKeys(WebElement element, String text, Boolean humanLike) {
+        if (humanLike && queueType(element, text)) return;
         WaitUtils.waitForClickable(driver, element, Duration.ofSeconds(15));
         try {
             element.clear();
-            Thread.sleep(500);
-            if (humanLike) {
-                WaitUtils.humanType(element, text.toString(), 50, 100); // 25-90ms per key
-            } else {
-                element.sendKeys(text);
-            }
+            InputSpeed speed = humanLike ? inputSpeed() : InputSpeed.FAST;
+            speed.type(driver, element, text, 500, 50, 100);
         } catch (Exception e) {
             log.warn("Standard sendKeys failed, using JavaScript: {}", e.getMessage());
-            ((JavascriptExecutor) driver).executeScript(
-                "arguments[0].value = arguments[1]; arguments[0].dispatchEvent(new Event('input', {bubbles: true}));",
-                element, text
-            );
+            InputSpeed.setValue(driver, element, text);
         }
     }
 
@@ -133,6 +129,7 @@ public class LoginPage extends BasePage {
 
     @Step("Get page title")
     public String getPageTitle() {
+        ActionBatch.flushPending();
         String title = driver.getTitle();
         log.info("Current page title: {}", title);
         return title;
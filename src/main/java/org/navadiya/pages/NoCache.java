@@ -0,0 +1,16 @@
+package org.navadiya.pages;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a page object element field out of element reference caching: every access locates the element
+ * again, as plain AjaxElementLocatorFactory fields do. Use it for elements that are replaced by the page
+ * without becoming stale in a detectable way (e.g. re-rendered in place under the same node).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface NoCache {
+}
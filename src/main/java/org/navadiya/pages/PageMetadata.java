@@ -0,0 +1,243 @@
+package org.navadiya.pages;
+
+import io.appium.java_client.pagefactory.AppiumElementLocatorFactory;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.DefaultElementByBuilder;
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.driver.NavigationTracker;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.AbstractAnnotations;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-class compiled page object metadata. The first construction of a page class scans its fields and
+ * parses the {@code @FindBy}/{@code @FindBys}/{@code @FindAll} locators once; later constructions only
+ * create the element proxies and assign them, without walking the class hierarchy or re-reading annotations.
+ * Produces the same proxies as {@code PageFactory.initElements} with {@code AjaxElementLocatorFactory};
+ * XPath locators are compiled by {@link LocatorOptimizer} on the way.
+ */
+public final class PageMetadata {
+
+    private static final Map<Class<?>, PageMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private static final ProxyFactory PROXIES = new ProxyFactory();
+    private static final Class<?>[] ELEMENT_INTERFACES = {WebElement.class, WrapsElement.class, Locatable.class};
+
+    private final Class<?> type;
+    /** Element fields with parsed locators; null until the class was initialised for web. */
+    private volatile List<ElementField> webFields;
+    /** Fields decorated on first use; null until the class was initialised for mobile. */
+    private volatile List<MobileField> mobileFields;
+
+    /** A decoratable field with its locator parsed once; name is {@code Page.field} for lookup timings. */
+    private record ElementField(Field field, String name, CompiledAnnotations annotations, boolean list, boolean cacheable) {}
+
+    /** A field of a mobile page; timed fields get wrapped Appium locators, others go to AppiumFieldDecorator. */
+    private record MobileField(Field field, String name, boolean list, boolean timed) {}
+
+    /** AbstractAnnotations with a pre-built locator, so locators do not re-read the field annotations. */
+    private static final class CompiledAnnotations extends AbstractAnnotations {
+        private final By by;
+        private final boolean cached;
+
+        CompiledAnnotations(Field field) {
+            Annotations annotations = new Annotations(field);
+            By built = annotations.buildBy();
+            this.by = ApplicationConfig.isLocatorOptimizationEnabled() ? LocatorOptimizer.optimize(built) : built;
+            this.cached = annotations.isLookupCached();
+        }
+
+        @Override
+        public By buildBy() {
+            return by;
+        }
+
+        @Override
+        public boolean isLookupCached() {
+            return cached;
+        }
+    }
+
+    /** Exposes DefaultFieldDecorator's list proxy builder; single elements use {@link CachingElementHandler}. */
+    private static final class ProxyFactory extends DefaultFieldDecorator {
+        ProxyFactory() {
+            super(null);
+        }
+
+        WebElement element(ClassLoader loader, ElementLocator locator, By by) {
+            return (WebElement) Proxy.newProxyInstance(loader, ELEMENT_INTERFACES, new CachingElementHandler(locator, by));
+        }
+
+        List<WebElement> list(ClassLoader loader, ElementLocator locator) {
+            return proxyForListLocator(loader, locator);
+        }
+    }
+
+    private PageMetadata(Class<?> type) {
+        this.type = type;
+    }
+
+    public static PageMetadata of(Class<?> type) {
+        return CACHE.computeIfAbsent(type, PageMetadata::new);
+    }
+
+    /**
+     * Assign AjaxElementLocator-backed proxies to every element field of page. Single elements reuse their
+     * resolved reference until a navigation or staleness (element.cache.enabled, per-field {@link NoCache}).
+     * Every lookup is timed per field in {@link org.navadiya.metrics.LocatorTimings}.
+     */
+    public void initWeb(Object page, SearchContext context, int timeoutSeconds) {
+        ClassLoader loader = page.getClass().getClassLoader();
+        boolean caching = ApplicationConfig.isElementCacheEnabled();
+        String session = (caching && context instanceof WebDriver driver) ? NavigationTracker.sessionOf(driver) : null;
+        for (ElementField f : webFields()) {
+            ElementLocator locator = (caching && f.cacheable())
+                    ? new CachingElementLocator(context, timeoutSeconds, f.annotations(), f.name(), session)
+                    : new TimedElementLocator(context, timeoutSeconds, f.annotations(), f.name());
+            Object proxy = f.list() ? PROXIES.list(loader, locator) : PROXIES.element(loader, locator, f.annotations().buildBy());
+            set(f.field(), page, proxy);
+        }
+    }
+
+    private List<ElementField> webFields() {
+        List<ElementField> fields = webFields;
+        if (fields == null) {
+            List<ElementField> compiled = new ArrayList<>();
+            for (Field field : declaredFields(type)) {
+                boolean list = isElementList(field);
+                if (!list && !WebElement.class.isAssignableFrom(field.getType())) continue;
+                field.setAccessible(true);
+                boolean cacheable = !list && field.getAnnotation(NoCache.class) == null;
+                String name = type.getSimpleName() + "." + field.getName();
+                compiled.add(new ElementField(field, name, new CompiledAnnotations(field), list, cacheable));
+            }
+            webFields = fields = List.copyOf(compiled);
+        }
+        return fields;
+    }
+
+    /**
+     * Decorate page for driver. WebElement and {@code List<WebElement>} fields get Appium's locators for the
+     * driver's platform, wrapped so that every lookup is timed like web fields; other fields (widgets, typed
+     * elements) go to an AppiumFieldDecorator. Both are built per page with its timeout, since Appium's
+     * locators hold the driver strongly. The first call per class checks every field; later calls only visit
+     * the fields that were decorated.
+     */
+    public void initMobile(Object page, WebDriver driver, Duration timeout) {
+        Capabilities caps = driver instanceof HasCapabilities c ? c.getCapabilities() : null;
+        String platform = caps == null || caps.getPlatformName() == null ? null : caps.getPlatformName().toString();
+        Object automation = caps == null ? null : caps.getCapability("automationName");
+        String automationName = automation == null ? null : automation.toString();
+        DefaultElementByBuilder builder = new DefaultElementByBuilder(platform, automationName);
+        AppiumElementLocatorFactory factory = null;
+        AppiumFieldDecorator decorator = null;
+        ClassLoader loader = page.getClass().getClassLoader();
+
+        List<MobileField> known = mobileFields;
+        List<MobileField> decorated = new ArrayList<>();
+        for (MobileField f : known != null ? known : candidates()) {
+            Object value = null;
+            if (f.timed()) {
+                if (factory == null) factory = new AppiumElementLocatorFactory(driver, timeout, new DefaultElementByBuilder(platform, automationName));
+                ElementLocator appium = factory.createLocator(f.field());
+                if (appium != null) {
+                    builder.setAnnotated(f.field()); // the factory's own builder forgets its By after use
+                    By by = builder.buildBy();
+                    ElementLocator locator = new TimedLocator(appium, f.name(), String.valueOf(by));
+                    value = f.list() ? PROXIES.list(loader, locator) : PROXIES.element(loader, locator, by);
+                }
+            } else {
+                if (decorator == null) decorator = new AppiumFieldDecorator(driver, timeout);
+                value = decorator.decorate(loader, f.field());
+            }
+            if (value == null) continue;
+            set(f.field(), page, value);
+            decorated.add(f);
+        }
+        if (known == null) mobileFields = List.copyOf(decorated);
+    }
+
+    /** Every field a mobile page could have decorated, before knowing which ones are. */
+    private List<MobileField> candidates() {
+        List<MobileField> candidates = new ArrayList<>();
+        for (Field field : declaredFields(type)) {
+            field.setAccessible(true);
+            boolean list = isWebElementList(field);
+            boolean timed = list || field.getType() == WebElement.class;
+            candidates.add(new MobileField(field, type.getSimpleName() + "." + field.getName(), list, timed));
+        }
+        return candidates;
+    }
+
+    /** Locator behind a page object element proxy created here, or null for any other element. */
+    public static By locatorOf(WebElement element) {
+        if (element != null && Proxy.isProxyClass(element.getClass())
+                && Proxy.getInvocationHandler(element) instanceof CachingElementHandler handler) {
+            return handler.by();
+        }
+        return null;
+    }
+
+    /** Element cache hit/miss summary since the last reset. */
+    public static String elementCacheStats() {
+        return CachingElementLocator.stats();
+    }
+
+    public static void resetElementCacheStats() {
+        CachingElementLocator.resetStats();
+    }
+
+    private static void set(Field field, Object page, Object value) {
+        try {
+            field.set(page, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot initialise " + field, e);
+        }
+    }
+
+    /** Instance fields of type and its superclasses, like PageFactory visits them. */
+    private static List<Field> declaredFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static boolean isElementList(Field field) {
+        if (!isWebElementList(field)) return false;
+        return field.getAnnotation(FindBy.class) != null || field.getAnnotation(FindBys.class) != null
+                || field.getAnnotation(FindAll.class) != null;
+    }
+
+    private static boolean isWebElementList(Field field) {
+        if (!List.class.isAssignableFrom(field.getType())) return false;
+        Type generic = field.getGenericType();
+        return generic instanceof ParameterizedType p && p.getActualTypeArguments()[0] == WebElement.class;
+    }
+}
@@ -0,0 +1,42 @@
+package org.navadiya.pages;
+
+import org.navadiya.metrics.LocatorTimings;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.AbstractAnnotations;
+import org.openqa.selenium.support.pagefactory.AjaxElementLocator;
+
+import java.util.List;
+
+/**
+ * AjaxElementLocator that records every lookup (including its wait for the element) in
+ * {@link LocatorTimings} under the page field that declared it.
+ */
+class TimedElementLocator extends AjaxElementLocator {
+
+    private final String owner;
+    private final String locator;
+
+    TimedElementLocator(SearchContext context, int timeoutSeconds, AbstractAnnotations annotations, String owner) {
+        super(context, timeoutSeconds, annotations);
+        this.owner = owner;
+        this.locator = String.valueOf(annotations.buildBy());
+    }
+
+    @Override
+    public WebElement findElement() {
+        return LocatorTimings.time(owner, locator, super::findElement);
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        long start = System.nanoTime();
+        List<WebElement> found = List.of();
+        try {
+            found = super.findElements();
+            return found;
+        } finally {
+            LocatorTimings.record(owner, locator, !found.isEmpty(), System.nanoTime() - start);
+        }
+    }
+}
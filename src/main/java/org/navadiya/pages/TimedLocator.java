@@ -0,0 +1,46 @@
+package org.navadiya.pages;
+
+import org.navadiya.metrics.LocatorTimings;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * Wraps a locator built elsewhere (Appium's, for mobile pages) and records every lookup in
+ * {@link LocatorTimings} under the page field that declared it, like {@link TimedElementLocator}.
+ */
+final class TimedLocator implements ElementLocator {
+
+    private final ElementLocator delegate;
+    private final String owner;
+    private final String locator;
+
+    TimedLocator(ElementLocator delegate, String owner, String locator) {
+        this.delegate = delegate;
+        this.owner = owner;
+        this.locator = locator;
+    }
+
+    @Override
+    public WebElement findElement() {
+        return LocatorTimings.time(owner, locator, delegate::findElement);
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        long start = System.nanoTime();
+        List<WebElement> found = List.of();
+        try {
+            found = delegate.findElements();
+            return found;
+        } finally {
+            LocatorTimings.record(owner, locator, !found.isEmpty(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
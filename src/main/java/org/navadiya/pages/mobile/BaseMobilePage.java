@@ -3,10 +3,10 @@ package org.navadiya.pages.mobile;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
-import io.appium.java_client.pagefactory.AppiumFieldDecorator;
 import org.navadiya.config.ApplicationConfig;
+import org.navadiya.pages.PageMetadata;
+import org.navadiya.util.AdaptiveWait;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,21 +26,11 @@ public abstract class BaseMobilePage {
     public BaseMobilePage(WebDriver driver) {
         this.driver = (AppiumDriver) driver;
 
-        // Get timeout from configuration
-        int timeoutSeconds = 15; // default
-        try {
-            String timeout = ApplicationConfig.getProperty("app.timeout.seconds");
-            if (timeout != null && !timeout.isEmpty()) {
-                timeoutSeconds = Integer.parseInt(timeout);
-            }
-        } catch (NumberFormatException e) {
-            log.warn("Invalid timeout configuration, using default: {}", timeoutSeconds);
-        }
-
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        Duration timeout = Duration.ofSeconds(ApplicationConfig.getTimeoutSeconds());
+        this.wait = AdaptiveWait.create(driver, timeout, "page:" + getClass().getName());
 
-        // Initialize page elements with AppiumFieldDecorator
-        PageFactory.initElements(new AppiumFieldDecorator(driver, Duration.ofSeconds(timeoutSeconds)), this);
+        // Initialize page elements with an AppiumFieldDecorator for this timeout; the field scan is cached per class
+        PageMetadata.of(getClass()).initMobile(this, driver, timeout);
     }
 
     /**
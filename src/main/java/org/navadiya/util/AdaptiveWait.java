@@ -0,0 +1,153 @@
+package org.navadiya.util;
+
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.metrics.WaitProfiler;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait with history-aware polling. Each wait is identified by a key (locator + condition,
+ * page class, ...); the typical time that key needs to resolve is kept in a small in-process table.
+ * Polling skips ahead to just before the expected resolution time, then probes quickly and backs off
+ * exponentially up to wait.polling.max.ms, instead of sleeping a fixed 500 ms between every probe.
+ * With wait.polling.adaptive=false the fixed 500 ms interval is kept. Every wait reports its outcome
+ * and blocked time to {@link WaitProfiler}.
+ */
+public class AdaptiveWait extends WebDriverWait {
+
+    /** Keys tracked before new ones simply use the default schedule. */
+    private static final int MAX_KEYS = 1_000;
+    /** Weight of the newest sample in the moving average. */
+    private static final double ALPHA = 0.3;
+    private static final double BACKOFF = 1.5;
+    /** Never jump ahead further than this on the first sleep, so a slow history cannot hide a fast page. */
+    private static final long MAX_SKIP_AHEAD_MS = 2_000;
+    /** WebDriverWait's default interval, used when adaptive polling is disabled. */
+    private static final long FIXED_INTERVAL_MS = 500;
+
+    private static final Map<String, double[]> HISTORY = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final Duration timeout;
+    private final boolean learn;
+    private final BackoffSleeper sleeper;
+
+    private AdaptiveWait(WebDriver driver, Duration timeout, String key, boolean learn, BackoffSleeper sleeper) {
+        super(driver, timeout, Duration.ofMillis(sleeper.maxMs), Clock.systemDefaultZone(), sleeper);
+        this.key = key;
+        this.timeout = timeout;
+        this.learn = learn;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Create a wait for the given key.
+     */
+    public static WebDriverWait create(WebDriver driver, Duration timeout, String key) {
+        return new AdaptiveWait(driver, timeout, key, true, sleeper());
+    }
+
+    /**
+     * Create a wait that polls with the backoff schedule but neither reads nor records history, for
+     * targets without a stable key. The key is only used for {@link WaitProfiler}.
+     */
+    public static WebDriverWait withoutHistory(WebDriver driver, Duration timeout, String key) {
+        return new AdaptiveWait(driver, timeout, key, false, sleeper());
+    }
+
+    private static BackoffSleeper sleeper() {
+        return ApplicationConfig.isAdaptivePollingEnabled()
+                ? new BackoffSleeper(ApplicationConfig.getPollingMinMillis(), ApplicationConfig.getPollingMaxMillis())
+                : new BackoffSleeper(FIXED_INTERVAL_MS, FIXED_INTERVAL_MS);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        double[] history = learn ? HISTORY.get(key) : null;
+        long start = System.nanoTime();
+        sleeper.reset(history == null ? -1 : history[0], start + timeout.toNanos());
+        V value;
+        try {
+            value = super.until(isTrue);
+        } catch (TimeoutException e) {
+            WaitProfiler.timeout(key, start);
+            throw e;
+        }
+        WaitProfiler.success(key, start);
+        if (learn) record(key, (System.nanoTime() - start) / 1_000_000.0);
+        return value;
+    }
+
+    /** Typical resolution time in milliseconds for key, or -1 when it has no history yet. */
+    public static double typicalMillis(String key) {
+        double[] history = HISTORY.get(key);
+        return history == null ? -1 : history[0];
+    }
+
+    private static void record(String key, double millis) {
+        double[] history = HISTORY.get(key);
+        if (history == null) {
+            if (HISTORY.size() >= MAX_KEYS) return;
+            history = HISTORY.computeIfAbsent(key, k -> new double[]{millis});
+        }
+        synchronized (history) {
+            history[0] = ALPHA * millis + (1 - ALPHA) * history[0];
+        }
+    }
+
+    /**
+     * Sleeper that ignores FluentWait's fixed interval: the first sleep jumps close to the expected
+     * resolution time, later ones start small and grow by {@link #BACKOFF} up to maxMs. No sleep runs
+     * past the wait's deadline, so a long skip-ahead cannot overshoot the timeout.
+     */
+    private static final class BackoffSleeper implements Sleeper {
+        private final long minMs;
+        private final long maxMs;
+        private long nextMs;
+        private long skipAheadMs;
+        private long deadlineNanos;
+
+        BackoffSleeper(long minMs, long maxMs) {
+            this.minMs = minMs;
+            this.maxMs = Math.max(minMs, maxMs);
+        }
+
+        void reset(double typicalMs, long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+            if (typicalMs < 0) {
+                skipAheadMs = 0;
+                nextMs = minMs;
+            } else {
+                // wake up slightly before the usual resolution time, then probe at ~1/8 of it
+                skipAheadMs = Math.min(MAX_SKIP_AHEAD_MS, (long) (typicalMs * 0.8));
+                nextMs = clamp((long) (typicalMs / 8));
+            }
+        }
+
+        @Override
+        public void sleep(Duration ignored) throws InterruptedException {
+            long sleepMs;
+            if (skipAheadMs > nextMs) {
+                sleepMs = skipAheadMs;
+                skipAheadMs = 0;
+            } else {
+                sleepMs = nextMs;
+                nextMs = clamp((long) (nextMs * BACKOFF));
+            }
+            long remainingMs = (deadlineNanos - System.nanoTime()) / 1_000_000;
+            Thread.sleep(Math.max(0, Math.min(sleepMs, remainingMs)));
+        }
+
+        private long clamp(long ms) {
+            return Math.max(minMs, Math.min(maxMs, ms));
+        }
+    }
+}
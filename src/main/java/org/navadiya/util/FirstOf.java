@@ -0,0 +1,172 @@
+package org.navadiya.util;
+
+import org.navadiya.metrics.LocatorTimings;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * "First-of" element lookup across several locator strategies. Every poll evaluates all candidates
+ * instead of giving each its own full timeout: when all of them are CSS/XPath and the session runs
+ * scripts, a single script checks them in one round trip; otherwise each candidate gets one
+ * findElements call per poll. Wins are counted per group so the usual winner is tried first next time.
+ * The winner's lookup time (or, on timeout, a failure per candidate) goes to {@link LocatorTimings}
+ * under {@code firstOf:<group>}.
+ */
+public final class FirstOf {
+    private static final Logger log = LoggerFactory.getLogger(FirstOf.class);
+
+    private static final String SCRIPT = String.join("\n",
+            "var targets = arguments[0], clickable = arguments[1];",
+            "function find(t) {",
+            "  if (t[0] === 'xpath') return document.evaluate(t[1], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  return document.querySelector(t[1]);",
+            "}",
+            "function visible(el) {",
+            "  if (!el || el.nodeType !== 1) return false;",
+            "  var s = window.getComputedStyle(el);",
+            "  if (s.display === 'none' || s.visibility === 'hidden' || s.visibility === 'collapse' || parseFloat(s.opacity) === 0) return false;",
+            "  var r = el.getBoundingClientRect();",
+            "  return r.width > 0 && r.height > 0;",
+            "}",
+            "for (var i = 0; i < targets.length; i++) {",
+            "  try {",
+            "    var el = find(targets[i]);",
+            "    if (!visible(el)) continue;",
+            "    if (clickable && (el.disabled || el.getAttribute('aria-disabled') === 'true')) continue;",
+            "    return [i, el];",
+            "  } catch (e) {}",
+            "}",
+            "return null;");
+
+    /** Drivers whose current context rejected scripts (e.g. NATIVE_APP); they use findElements. */
+    private static final Set<WebDriver> NO_SCRIPT = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final Map<String, Map<String, LongAdder>> WINS = new ConcurrentHashMap<>();
+
+    private FirstOf() {}
+
+    /** The element found and the strategy that found it. */
+    public record Match(WebElement element, By locator) {}
+
+    /**
+     * Wait until any candidate locates a displayed (and, if clickable, enabled) element.
+     *
+     * @param group      name under which wins are counted, e.g. "android-location-permission"
+     * @param candidates locators in their default order; earlier wins reorder them
+     * @throws TimeoutException when no candidate matched within timeout
+     */
+    public static Match find(WebDriver driver, String group, List<By> candidates, boolean clickable, Duration timeout) {
+        List<By> ordered = order(group, candidates);
+        List<List<String>> targets = scriptTargets(ordered);
+        Match[] match = new Match[1];
+        String key = "firstOf:" + group;
+        long start = System.nanoTime();
+        try {
+            AdaptiveWait.create(driver, timeout, key).until(d -> {
+                match[0] = (targets != null && !NO_SCRIPT.contains(d)) ? viaScript(d, ordered, targets, clickable) : viaFind(d, ordered, clickable);
+                return match[0] != null;
+            });
+        } catch (TimeoutException e) {
+            long elapsed = System.nanoTime() - start;
+            for (By candidate : ordered) LocatorTimings.record(key, candidate, false, elapsed);
+            throw new TimeoutException("None of " + candidates.size() + " locators for " + group + " matched within "
+                    + timeout.toMillis() + " ms", e);
+        }
+        LocatorTimings.record(key, match[0].locator(), true, System.nanoTime() - start);
+        WINS.computeIfAbsent(group, g -> new ConcurrentHashMap<>())
+                .computeIfAbsent(match[0].locator().toString(), l -> new LongAdder()).increment();
+        log.debug("{} matched by {}", group, match[0].locator());
+        return match[0];
+    }
+
+    /** Wins per locator for group, most frequent first. */
+    public static Map<String, Long> wins(String group) {
+        Map<String, LongAdder> wins = WINS.getOrDefault(group, Map.of());
+        Map<String, Long> out = new LinkedHashMap<>();
+        wins.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> out.put(e.getKey(), e.getValue().sum()));
+        return out;
+    }
+
+    private static List<By> order(String group, List<By> candidates) {
+        Map<String, LongAdder> wins = WINS.get(group);
+        if (wins == null) return candidates;
+        List<By> ordered = new ArrayList<>(candidates);
+        // stable sort: ties keep the caller's order
+        ordered.sort(Comparator.comparingLong((By b) -> {
+            LongAdder w = wins.get(b.toString());
+            return w == null ? 0 : w.sum();
+        }).reversed());
+        return ordered;
+    }
+
+    private static Match viaScript(WebDriver driver, List<By> ordered, List<List<String>> targets, boolean clickable) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, targets, clickable);
+            if (result instanceof List<?> list && list.size() == 2 && list.get(0) instanceof Number i && list.get(1) instanceof WebElement el) {
+                return new Match(el, ordered.get(i.intValue()));
+            }
+            return null;
+        } catch (JavascriptException | UnsupportedCommandException e) {
+            log.debug("Combined lookup not usable, using findElements: {}", e.getMessage());
+            NO_SCRIPT.add(driver);
+            return viaFind(driver, ordered, clickable);
+        } catch (WebDriverException e) {
+            // transient (navigation, stale window, ...): fall back for this probe only
+            log.trace("Combined lookup failed, using findElements once: {}", e.getMessage());
+            return viaFind(driver, ordered, clickable);
+        }
+    }
+
+    private static Match viaFind(WebDriver driver, List<By> ordered, boolean clickable) {
+        for (By locator : ordered) {
+            try {
+                for (WebElement el : driver.findElements(locator)) {
+                    if (el.isDisplayed() && (!clickable || el.isEnabled())) return new Match(el, locator);
+                }
+            } catch (WebDriverException e) {
+                // strategy not supported in this context (e.g. iOS predicate on Android) or element went stale
+                log.trace("Locator {} failed: {}", locator, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /** [mode, selector] per candidate when every candidate is CSS or XPath, otherwise null. */
+    private static List<List<String>> scriptTargets(List<By> locators) {
+        List<List<String>> targets = new ArrayList<>(locators.size());
+        for (By locator : locators) {
+            if (!(locator instanceof By.Remotable remotable)) return null;
+            By.Remotable.Parameters params = remotable.getRemoteParameters();
+            if (!(params.value() instanceof String value)) return null;
+            switch (params.using()) {
+                case "css selector" -> targets.add(List.of("css", value));
+                case "xpath" -> targets.add(List.of("xpath", value));
+                default -> {
+                    return null;
+                }
+            }
+        }
+        return targets;
+    }
+}
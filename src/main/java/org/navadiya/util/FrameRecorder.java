@@ -0,0 +1,248 @@
+package org.navadiya.util;
+
+import org.navadiya.config.ApplicationConfig;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-session ring buffer of low-resolution frames captured on a shared background scheduler.
+ * Only the last {@code replay.seconds} of frames are kept (also capped by {@code replay.max.bytes});
+ * the buffer is thrown away for passing tests and encoded into an animated GIF when a test fails.
+ */
+public final class FrameRecorder {
+    private static final Logger log = LoggerFactory.getLogger(FrameRecorder.class);
+
+    /** Stop capturing after this many consecutive failures (e.g. the session is gone). */
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    private static final ThreadLocal<FrameRecorder> CURRENT = new ThreadLocal<>();
+    private static volatile ScheduledExecutorService scheduler;
+
+    private final WebDriver driver;
+    private final int maxFrames;
+    private final long maxBytes;
+    private final int width;
+    private final int quality;
+    /** Logging context of the thread that started recording, so capture logs belong to the same test. */
+    private final Map<String, String> mdc;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private long bufferedBytes;
+    private volatile int failures;
+    private volatile ScheduledFuture<?> task;
+
+    private record Frame(long timestamp, byte[] jpeg) {}
+
+    private FrameRecorder(WebDriver driver) {
+        this.driver = driver;
+        long interval = ApplicationConfig.getReplayIntervalMillis();
+        this.maxFrames = (int) Math.max(1, ApplicationConfig.getReplaySeconds() * 1000L / interval);
+        this.maxBytes = ApplicationConfig.getReplayMaxBytes();
+        this.width = ApplicationConfig.getReplayWidth();
+        this.quality = ApplicationConfig.getReplayQuality();
+        this.mdc = MDC.getCopyOfContextMap();
+        this.task = scheduler().scheduleWithFixedDelay(this::captureFrame, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start recording frames for the driver of the current thread. Any previous buffer of this thread is discarded.
+     * No-op unless replay.enabled=true.
+     */
+    public static void start(WebDriver driver) {
+        discard();
+        if (driver == null || !ApplicationConfig.isReplayEnabled()) return;
+        CURRENT.set(new FrameRecorder(driver));
+        log.debug("Frame recorder started for thread {}", Thread.currentThread().getName());
+    }
+
+    /** Stop capturing for the current thread but keep the buffered frames for a later {@link #drainAsGif()}. */
+    public static void stop() {
+        FrameRecorder recorder = CURRENT.get();
+        if (recorder != null) recorder.cancel();
+    }
+
+    /** Stop capturing and drop all buffered frames of the current thread. */
+    public static void discard() {
+        FrameRecorder recorder = CURRENT.get();
+        if (recorder != null) {
+            recorder.cancel();
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Stop capturing, encode the buffered frames of the current thread into an animated GIF and release them.
+     *
+     * @return GIF bytes, or null when nothing was recorded
+     */
+    public static byte[] drainAsGif() {
+        FrameRecorder recorder = CURRENT.get();
+        if (recorder == null) return null;
+        recorder.cancel();
+        CURRENT.remove();
+        List<Frame> snapshot;
+        synchronized (recorder) {
+            snapshot = new ArrayList<>(recorder.frames);
+            recorder.frames.clear();
+        }
+        if (snapshot.isEmpty()) return null;
+        try {
+            return encodeGif(snapshot);
+        } catch (Exception e) {
+            log.warn("Could not encode failure replay: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void cancel() {
+        ScheduledFuture<?> t = task;
+        if (t != null) {
+            t.cancel(false);
+            task = null;
+        }
+    }
+
+    private void captureFrame() {
+        if (mdc != null) MDC.setContextMap(mdc);
+        try {
+            byte[] shot = ScreenshotUtils.capture(driver, ScreenshotUtils.Format.JPEG, quality, null).bytes();
+            byte[] jpeg = downscale(shot);
+            synchronized (this) {
+                frames.addLast(new Frame(System.currentTimeMillis(), jpeg));
+                bufferedBytes += jpeg.length;
+                while (frames.size() > maxFrames || (bufferedBytes > maxBytes && frames.size() > 1)) {
+                    bufferedBytes -= frames.removeFirst().jpeg().length;
+                }
+            }
+            failures = 0;
+        } catch (Exception e) {
+            if (++failures >= MAX_CONSECUTIVE_FAILURES) {
+                log.debug("Frame capture failed {} times in a row, stopping recorder: {}", failures, e.getMessage());
+                cancel();
+            }
+        } finally {
+            // scheduler threads are shared by all recorders
+            MDC.clear();
+        }
+    }
+
+    /** Scale the frame down to replay.width and re-encode it as a small JPEG for the buffer. */
+    private byte[] downscale(byte[] image) throws Exception {
+        BufferedImage src = ImageIO.read(new ByteArrayInputStream(image));
+        if (src == null) throw new IllegalStateException("Unreadable frame");
+        int w = Math.min(width, src.getWidth());
+        int h = Math.max(1, (int) Math.round((double) src.getHeight() * w / src.getWidth()));
+        BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality / 100f);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeGif(List<Frame> frames) throws Exception {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < frames.size(); i++) {
+                BufferedImage img = ImageIO.read(new ByteArrayInputStream(frames.get(i).jpeg()));
+                long next = (i + 1 < frames.size()) ? frames.get(i + 1).timestamp() : frames.get(i).timestamp() + 1000;
+                int delayCs = (int) Math.max(1, Math.min(65535, (next - frames.get(i).timestamp()) / 10));
+                IIOMetadata metadata = gifMetadata(writer, img, delayCs, i == 0);
+                writer.writeToSequence(new IIOImage(img, null, metadata), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static IIOMetadata gifMetadata(ImageWriter writer, BufferedImage img, int delayCs, boolean first) throws Exception {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(img), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode gce = new IIOMetadataNode("GraphicControlExtension");
+        gce.setAttribute("disposalMethod", "none");
+        gce.setAttribute("userInputFlag", "FALSE");
+        gce.setAttribute("transparentColorFlag", "FALSE");
+        gce.setAttribute("delayTime", Integer.toString(delayCs));
+        gce.setAttribute("transparentColorIndex", "0");
+        root.appendChild(gce);
+
+        if (first) {
+            // NETSCAPE2.0 extension: loop forever
+            IIOMetadataNode appExtensions = new IIOMetadataNode("ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[]{0x1, 0x0, 0x0});
+            appExtensions.appendChild(loop);
+            root.appendChild(appExtensions);
+        }
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    private static ScheduledExecutorService scheduler() {
+        ScheduledExecutorService s = scheduler;
+        if (s == null) {
+            synchronized (FrameRecorder.class) {
+                s = scheduler;
+                if (s == null) {
+                    AtomicInteger seq = new AtomicInteger();
+                    s = Executors.newScheduledThreadPool(ApplicationConfig.getReplayThreads(), r -> {
+                        Thread t = new Thread(r, "frame-recorder-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+                        t.setPriority(Thread.MIN_PRIORITY);
+                        return t;
+                    });
+                    scheduler = s;
+                }
+            }
+        }
+        return s;
+    }
+}
@@ -0,0 +1,82 @@
+package org.navadiya.util;
+
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.driver.DriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * Named input speed profiles. HUMAN keeps the caller's pre-typing pause and per-character delays (for
+ * bot-sensitive environments), FAST types the whole value with a single sendKeys, and INSTANT sets the
+ * value through JavaScript and fires input/change events in one round trip.
+ *
+ * <p>The active profile comes from input.speed.&lt;browser&gt; or input.speed (see
+ * {@link ApplicationConfig#getInputSpeed(String)}); page objects can pin their own profile.
+ */
+public enum InputSpeed {
+    HUMAN, FAST, INSTANT;
+
+    private static final Logger log = LoggerFactory.getLogger(InputSpeed.class);
+
+    // uses the native value setter so frameworks that track the property (React, Vue) see the change
+    private static final String SET_VALUE = String.join("\n",
+            "var el = arguments[0], value = arguments[1];",
+            "var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;",
+            "var desc = Object.getOwnPropertyDescriptor(proto, 'value');",
+            "el.focus();",
+            "if (desc && desc.set && (el instanceof HTMLInputElement || el instanceof HTMLTextAreaElement)) desc.set.call(el, value); else el.value = value;",
+            "el.dispatchEvent(new Event('input', {bubbles: true}));",
+            "el.dispatchEvent(new Event('change', {bubbles: true}));");
+
+    /** Parse a profile name; unknown values fall back to HUMAN. */
+    public static InputSpeed of(String name) {
+        if (name == null || name.isBlank()) return HUMAN;
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown input speed '{}', using human", name);
+            return HUMAN;
+        }
+    }
+
+    /** Profile configured for the current thread's browser. */
+    public static InputSpeed current() {
+        return of(ApplicationConfig.getInputSpeed(DriverManager.getBrowser()));
+    }
+
+    /**
+     * Type text into element (which the caller has cleared) according to this profile.
+     *
+     * @param pauseMs   pause before typing, HUMAN only
+     * @param minCharMs shortest per-character delay, HUMAN only
+     * @param maxCharMs longest per-character delay, HUMAN only
+     */
+    public void type(WebDriver driver, WebElement element, CharSequence text, long pauseMs, long minCharMs, long maxCharMs)
+            throws InterruptedException {
+        switch (this) {
+            case HUMAN -> {
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+                WaitUtils.humanType(element, text.toString(), minCharMs, maxCharMs);
+            }
+            case FAST -> element.sendKeys(text);
+            case INSTANT -> {
+                try {
+                    setValue(driver, element, text);
+                } catch (Exception e) {
+                    log.debug("Script value set failed, typing instead: {}", e.getMessage());
+                    element.sendKeys(text);
+                }
+            }
+        }
+    }
+
+    /** Set the element's value through JavaScript and fire input and change events. */
+    public static void setValue(WebDriver driver, WebElement element, CharSequence text) {
+        ((JavascriptExecutor) driver).executeScript(SET_VALUE, element, text.toString());
+    }
+}
@@ -0,0 +1,84 @@
+package org.navadiya.util;
+
+import org.navadiya.driver.BrowserEventCollector;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Waits until the page has had no network activity for a quiet window. When the session is captured
+ * over BiDi ({@link BrowserEventCollector}, browser.events.enabled=true) the browser's own request events
+ * are used, which includes documents, scripts and images. Otherwise a small fetch/XHR interceptor is
+ * injected into the page; resource loads are picked up from the Performance timeline.
+ */
+public final class NetworkIdle {
+
+    private static final String SCRIPT = String.join("\n",
+            "var w = window, t = w.__navadiyaNet;",
+            "if (!t) {",
+            "  t = w.__navadiyaNet = {pending: 0, last: performance.now()};",
+            "  var touch = function () { t.last = performance.now(); };",
+            "  var start = function () { t.pending++; touch(); };",
+            "  var end = function () { t.pending = Math.max(0, t.pending - 1); touch(); };",
+            "  if (w.fetch) {",
+            "    var f = w.fetch;",
+            "    w.fetch = function () {",
+            "      start();",
+            "      try { return f.apply(this, arguments).finally(end); } catch (e) { end(); throw e; }",
+            "    };",
+            "  }",
+            "  if (w.XMLHttpRequest) {",
+            "    var send = XMLHttpRequest.prototype.send;",
+            "    XMLHttpRequest.prototype.send = function () {",
+            "      start();",
+            "      this.addEventListener('loadend', end, {once: true});",
+            "      try { return send.apply(this, arguments); } catch (e) { end(); throw e; }",
+            "    };",
+            "  }",
+            // requests issued before the interceptor existed are only visible on the performance timeline
+            "  performance.getEntriesByType('resource').forEach(function (r) { t.last = Math.max(t.last, r.responseEnd); });",
+            "  if (w.PerformanceObserver) {",
+            "    try { new PerformanceObserver(function (l) { l.getEntries().forEach(function (r) { t.last = Math.max(t.last, r.responseEnd); }); })",
+            "      .observe({type: 'resource', buffered: false}); } catch (e) {}",
+            "  }",
+            "}",
+            "var loading = document.readyState !== 'complete';",
+            "return {pending: t.pending + (loading ? 1 : 0), idle: loading ? 0 : Math.max(0, performance.now() - t.last)};");
+
+    private NetworkIdle() {}
+
+    /**
+     * Block until at most maxInFlight requests are pending and nothing started or finished for idleTime.
+     *
+     * @throws TimeoutException reporting the requests still in flight at the deadline
+     */
+    public static void await(WebDriver driver, Duration idleTime, int maxInFlight, Duration timeout) {
+        long idleMillis = idleTime.toMillis();
+        long[] last = new long[2];
+        try {
+            AdaptiveWait.create(driver, timeout, "networkIdle:" + idleMillis).until(d -> {
+                long[] activity = BrowserEventCollector.networkActivity();
+                if (activity == null) activity = inPage(d);
+                last[0] = activity[0];
+                last[1] = activity[1];
+                return activity[0] <= maxInFlight && activity[1] >= idleMillis;
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(String.format("Network not idle for %d ms within %d ms (%d in flight, quiet for %d ms)",
+                    idleMillis, timeout.toMillis(), last[0], last[1]), e);
+        }
+    }
+
+    private static long[] inPage(WebDriver driver) {
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT);
+        if (!(result instanceof Map<?, ?> map)) return new long[]{0, Long.MAX_VALUE};
+        return new long[]{toLong(map.get("pending")), toLong(map.get("idle"))};
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : 0;
+    }
+}
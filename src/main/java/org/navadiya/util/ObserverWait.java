@@ -0,0 +1,189 @@
+package org.navadiya.util;
+
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.metrics.WaitProfiler;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Event-driven element waits. Instead of polling over the wire, a MutationObserver is installed in the
+ * page and a single async script call blocks until the element satisfies the condition or the timeout
+ * expires. Used by {@link WaitUtils} when wait.engine=observer (the default); locators that cannot be
+ * expressed as CSS/XPath, native mobile contexts and script failures fall back to WebDriverWait polling.
+ */
+public final class ObserverWait {
+    private static final Logger log = LoggerFactory.getLogger(ObserverWait.class);
+
+    /** Extra script timeout headroom so the page-side timer always fires before the driver gives up. */
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(2);
+
+    /** Drivers whose session rejected async scripts (e.g. native app context); they always poll. */
+    private static final Set<WebDriver> UNSUPPORTED = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    /** Known session script timeout per driver, to avoid a timeouts round-trip per wait. */
+    private static final Map<WebDriver, Duration> SCRIPT_TIMEOUTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final String SCRIPT = String.join("\n",
+            "var mode = arguments[0], target = arguments[1], cond = arguments[2], timeout = arguments[3];",
+            "var done = arguments[arguments.length - 1];",
+            "function find() {",
+            "  if (mode === 'element') return target;",
+            "  if (mode === 'xpath') return document.evaluate(target, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  return document.querySelector(target);",
+            "}",
+            "function visible(el) {",
+            "  if (!el || !el.isConnected || el.nodeType !== 1) return false;",
+            "  var s = window.getComputedStyle(el);",
+            "  if (s.display === 'none' || s.visibility === 'hidden' || s.visibility === 'collapse' || parseFloat(s.opacity) === 0) return false;",
+            "  var r = el.getBoundingClientRect();",
+            "  return r.width > 0 && r.height > 0;",
+            "}",
+            "function check() {",
+            "  try {",
+            "    var el = find();",
+            "    if (!visible(el)) return null;",
+            "    if (cond === 'clickable' && (el.disabled || el.getAttribute('aria-disabled') === 'true')) return null;",
+            "    return el;",
+            "  } catch (e) { return null; }",
+            "}",
+            "if (mode === 'element' && (!target || !target.isConnected)) { done({stale: true}); return; }",
+            "var hit = check();",
+            "if (hit) { done({found: true, element: hit}); return; }",
+            "var finished = false, observer = null, timer = null, tick = null;",
+            "function finish(res) {",
+            "  if (finished) return;",
+            "  finished = true;",
+            "  if (observer) observer.disconnect();",
+            "  clearTimeout(timer); clearInterval(tick);",
+            "  done(res);",
+            "}",
+            "function recheck() { var el = check(); if (el) finish({found: true, element: el}); }",
+            "observer = new MutationObserver(recheck);",
+            "observer.observe(document.documentElement || document, {childList: true, subtree: true, attributes: true});",
+            // style changes driven by CSS transitions/animations do not mutate the DOM, so re-check cheaply in-page
+            "tick = setInterval(recheck, 100);",
+            "timer = setTimeout(function () { finish({found: false}); }, timeout);");
+
+    private ObserverWait() {}
+
+    /** Element state to wait for. */
+    public enum Condition {
+        VISIBLE("visible", "visibility of"),
+        CLICKABLE("clickable", "element to be clickable:");
+
+        private final String script;
+        private final String description;
+
+        Condition(String script, String description) {
+            this.script = script;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Wait for the element located by locator to satisfy condition.
+     *
+     * @param fallback polling wait used when the observer cannot run; receives the remaining timeout
+     */
+    public static WebElement until(WebDriver driver, By locator, Condition condition, Duration timeout,
+                                   Function<Duration, WebElement> fallback) {
+        String[] target = toScriptTarget(locator);
+        if (target == null) return fallback.apply(timeout);
+        return run(driver, target[0], target[1], condition, timeout, locator.toString(), fallback);
+    }
+
+    /**
+     * Wait for an already located (or PageFactory proxied) element to satisfy condition.
+     *
+     * @param fallback polling wait used when the observer cannot run; receives the remaining timeout
+     */
+    public static WebElement until(WebDriver driver, WebElement element, Condition condition, Duration timeout,
+                                   Function<Duration, WebElement> fallback) {
+        return run(driver, "element", element, condition, timeout, element.toString(), fallback);
+    }
+
+    private static WebElement run(WebDriver driver, String mode, Object target, Condition condition, Duration timeout,
+                                  String description, Function<Duration, WebElement> fallback) {
+        if (!isUsable(driver)) return fallback.apply(timeout);
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        String key = condition.script + ":" + description;
+        try {
+            ensureScriptTimeout(driver, timeout);
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, mode, target, condition.script, timeout.toMillis());
+            if (result instanceof Map<?, ?> map) {
+                if (Boolean.TRUE.equals(map.get("found")) && map.get("element") instanceof WebElement el) {
+                    WaitProfiler.success(key, start);
+                    return el;
+                }
+                if (Boolean.FALSE.equals(map.get("found"))) {
+                    WaitProfiler.timeout(key, start);
+                    throw new TimeoutException(String.format("Expected condition failed: waiting for %s %s (tried for %d ms with MutationObserver)",
+                            condition.description, description, timeout.toMillis()));
+                }
+            }
+            // stale element or unexpected result: let the regular ExpectedConditions semantics decide
+        } catch (TimeoutException e) {
+            throw e;
+        } catch (WebDriverException e) {
+            // navigation aborted the script, the target could not be serialised, or scripts are unavailable
+            log.debug("Observer wait for {} not usable, falling back to polling: {}", description, e.getMessage());
+            if (e.getClass() == WebDriverException.class || e instanceof UnsupportedCommandException) {
+                UNSUPPORTED.add(driver);
+            }
+        }
+        long remaining = Math.max(0, deadline - System.nanoTime());
+        return fallback.apply(Duration.ofNanos(remaining));
+    }
+
+    private static boolean isUsable(WebDriver driver) {
+        if (!"observer".equals(ApplicationConfig.getWaitEngine())) return false;
+        return driver instanceof JavascriptExecutor && !UNSUPPORTED.contains(driver);
+    }
+
+    /**
+     * Raise the session script timeout if an async script of the given duration would outlive it; the value
+     * is cached per driver, so all async script users should go through here.
+     */
+    public static void ensureScriptTimeout(WebDriver driver, Duration timeout) {
+        Duration needed = timeout.plus(SCRIPT_TIMEOUT_MARGIN);
+        Duration current = SCRIPT_TIMEOUTS.get(driver);
+        if (current == null) {
+            try {
+                current = driver.manage().timeouts().getScriptTimeout();
+            } catch (Exception e) {
+                current = Duration.ZERO;
+            }
+        }
+        if (current.compareTo(needed) < 0) {
+            driver.manage().timeouts().scriptTimeout(needed);
+            current = needed;
+        }
+        SCRIPT_TIMEOUTS.put(driver, current);
+    }
+
+    /** Translate a locator into a [mode, selector] pair the page script understands, or null if it cannot. */
+    private static String[] toScriptTarget(By locator) {
+        if (!(locator instanceof By.Remotable remotable)) return null;
+        By.Remotable.Parameters params = remotable.getRemoteParameters();
+        if (!(params.value() instanceof String value)) return null;
+        return switch (params.using()) {
+            case "css selector" -> new String[]{"css", value};
+            case "xpath" -> new String[]{"xpath", value};
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package org.navadiya.util;
+
+import org.navadiya.config.ApplicationConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composite page readiness check. All conditions (document.readyState, pending jQuery AJAX, visible
+ * overlays and custom JavaScript predicates) are evaluated by one script per poll, which returns the
+ * first condition that is still blocking, or null when the page is ready.
+ *
+ * <pre>
+ * PageReady.standard().overlay(".spinner").predicate("app booted", "window.__APP_READY__ === true").await(driver, timeout);
+ * </pre>
+ */
+public final class PageReady {
+
+    private static final String PRELUDE = String.join("\n",
+            "function visible(el) {",
+            "  if (!el || el.nodeType !== 1) return false;",
+            "  var s = window.getComputedStyle(el);",
+            "  if (s.display === 'none' || s.visibility === 'hidden' || s.visibility === 'collapse' || parseFloat(s.opacity) === 0) return false;",
+            "  var r = el.getBoundingClientRect();",
+            "  return r.width > 0 && r.height > 0;",
+            "}",
+            "function overlay(sel) {",
+            "  var els = document.querySelectorAll(sel);",
+            "  for (var i = 0; i < els.length; i++) if (visible(els[i])) return true;",
+            "  return false;",
+            "}");
+
+    private final List<String> checks = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private String script;
+
+    private PageReady() {}
+
+    /** An empty check; add the conditions you need. */
+    public static PageReady of() {
+        return new PageReady();
+    }
+
+    /** readyState, jQuery AJAX and the overlays configured in page.ready.overlays. */
+    public static PageReady standard() {
+        PageReady ready = new PageReady().documentComplete().ajaxIdle();
+        for (String selector : ApplicationConfig.getPageReadyOverlays()) ready.overlay(selector);
+        return ready;
+    }
+
+    /** document.readyState must be 'complete'. */
+    public PageReady documentComplete() {
+        return add("readyState", "if (document.readyState !== 'complete') return 'readyState=' + document.readyState;");
+    }
+
+    /** No jQuery AJAX request may be active (ignored when the page has no jQuery). */
+    public PageReady ajaxIdle() {
+        return add("ajax", "if (window.jQuery && jQuery.active > 0) return 'jQuery.active=' + jQuery.active;");
+    }
+
+    /** No element matching the CSS selector may be visible. */
+    public PageReady overlay(String cssSelector) {
+        return add("overlay " + cssSelector,
+                "if (overlay(" + jsString(cssSelector) + ")) return " + jsString("overlay visible: " + cssSelector) + ";");
+    }
+
+    /**
+     * Custom condition.
+     *
+     * @param name       reported when the predicate is blocking
+     * @param expression JavaScript expression that is truthy once the condition is met
+     */
+    public PageReady predicate(String name, String expression) {
+        return add(name, "try { if (!(" + expression + ")) return " + jsString("predicate: " + name) + "; }"
+                + " catch (e) { return " + jsString("predicate failed: " + name + ": ") + " + e.message; }");
+    }
+
+    private PageReady add(String name, String check) {
+        names.add(name);
+        checks.add(check);
+        script = null;
+        return this;
+    }
+
+    /**
+     * Evaluate all conditions once.
+     *
+     * @return the first blocking condition, or null when the page is ready
+     */
+    public String blocker(WebDriver driver) {
+        if (checks.isEmpty()) return null;
+        Object result = ((JavascriptExecutor) driver).executeScript(script());
+        return result == null ? null : result.toString();
+    }
+
+    /**
+     * Poll until no condition is blocking.
+     *
+     * @throws TimeoutException naming the condition that was still blocking at the deadline
+     */
+    public void await(WebDriver driver, Duration timeout) {
+        String[] last = new String[1];
+        try {
+            AdaptiveWait.create(driver, timeout, "pageReady:" + String.join(",", names)).until(d -> {
+                last[0] = blocker(d);
+                return last[0] == null;
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Page not ready after " + timeout.toMillis() + " ms, still blocked by " + last[0], e);
+        }
+    }
+
+    private String script() {
+        if (script == null) {
+            script = PRELUDE + "\n" + String.join("\n", checks) + "\nreturn null;";
+        }
+        return script;
+    }
+
+    private static String jsString(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'").replace("\n", "\\n") + "'";
+    }
+}
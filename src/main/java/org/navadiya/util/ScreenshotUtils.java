@@ -1,26 +1,174 @@
 package org.navadiya.util;
 
 import io.qameta.allure.Allure;
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.driver.DriverManager;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Screenshot capture helpers. Chromium sessions (chrome/edge) capture through the DevTools
+ * {@code Page.captureScreenshot} command so format, quality and clipping are handled browser-side;
+ * every other driver falls back to {@link TakesScreenshot}.
+ */
 public class ScreenshotUtils {
+    private static final Logger log = LoggerFactory.getLogger(ScreenshotUtils.class);
+
+    /** Image formats supported by Page.captureScreenshot. */
+    public enum Format {
+        PNG("png", "image/png"),
+        JPEG("jpeg", "image/jpeg"),
+        WEBP("webp", "image/webp");
+
+        private final String extension;
+        private final String mimeType;
+
+        Format(String extension, String mimeType) {
+            this.extension = extension;
+            this.mimeType = mimeType;
+        }
+
+        public String extension() { return extension; }
+
+        public String mimeType() { return mimeType; }
+
+        /** Resolve a configured format name, defaulting to PNG for unknown values. */
+        public static Format of(String name) {
+            if (name == null) return PNG;
+            return switch (name.trim().toLowerCase()) {
+                case "jpg", "jpeg" -> JPEG;
+                case "webp" -> WEBP;
+                default -> PNG;
+            };
+        }
+    }
+
+    /** Captured image bytes together with the format they were actually encoded in. */
+    public record Screenshot(byte[] bytes, Format format) {}
+
     /**
      * Take screenshot and attach to Allure report
      */
-    private static final Logger log = LoggerFactory.getLogger(ScreenshotUtils.class);
-
     public static void takeScreenshot(WebDriver driver, String name) {
         try {
-            byte[] bytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            Allure.addAttachment(name, new ByteArrayInputStream(bytes));
+            Screenshot shot = capture(driver);
+            Allure.addAttachment(name, shot.format().mimeType(), new ByteArrayInputStream(shot.bytes()), shot.format().extension());
         } catch (Exception e) {
             log.error("Failed to take screenshot: {}", e.getMessage());
         }
     }
+
+    /**
+     * Capture the current viewport using the configured screenshot.format / screenshot.quality.
+     */
+    public static Screenshot capture(WebDriver driver) {
+        return capture(driver, Format.of(ApplicationConfig.getScreenshotFormat()), ApplicationConfig.getScreenshotQuality(), null);
+    }
+
+    /**
+     * Capture the viewport, or the given page region when clip is not null.
+     *
+     * @param format  requested image format (honoured on Chromium; the fallback always returns PNG)
+     * @param quality compression quality 1-100, ignored for PNG
+     * @param clip    region in CSS pixels relative to the document, or null for the viewport
+     */
+    public static Screenshot capture(WebDriver driver, Format format, int quality, Rectangle clip) {
+        HasCdp cdp = cdpOf(driver);
+        if (cdp != null) {
+            try {
+                return new Screenshot(captureViaCdp(cdp, format, quality, clip), format);
+            } catch (Exception e) {
+                log.debug("CDP screenshot failed, falling back to TakesScreenshot: {}", e.getMessage());
+            }
+        }
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        if (clip != null) png = crop(driver, png, clip);
+        return new Screenshot(png, Format.PNG);
+    }
+
+    /**
+     * Capture a single element. Chromium clips to the element rect browser-side; other drivers use
+     * the element's own screenshot endpoint.
+     */
+    public static Screenshot captureElement(WebDriver driver, WebElement element, Format format, int quality) {
+        HasCdp cdp = cdpOf(driver);
+        if (cdp != null) {
+            try {
+                return new Screenshot(captureViaCdp(cdp, format, quality, element.getRect()), format);
+            } catch (Exception e) {
+                log.debug("CDP element screenshot failed, falling back to TakesScreenshot: {}", e.getMessage());
+            }
+        }
+        return new Screenshot(element.getScreenshotAs(OutputType.BYTES), Format.PNG);
+    }
+
+    private static HasCdp cdpOf(WebDriver driver) {
+        if (!ApplicationConfig.isCdpScreenshotEnabled()) return null;
+        WebDriver raw = DriverManager.unwrap(driver);
+        return (raw instanceof HasCdp cdp) ? cdp : null;
+    }
+
+    private static byte[] captureViaCdp(HasCdp cdp, Format format, int quality, Rectangle clip) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("format", format.extension());
+        if (format != Format.PNG) params.put("quality", quality);
+        if (clip != null) {
+            Map<String, Object> region = new HashMap<>();
+            region.put("x", clip.getX());
+            region.put("y", clip.getY());
+            region.put("width", clip.getWidth());
+            region.put("height", clip.getHeight());
+            region.put("scale", 1);
+            params.put("clip", region);
+            // clip coordinates are document-relative, so allow regions outside the current viewport
+            params.put("captureBeyondViewport", true);
+        }
+        Map<String, Object> result = cdp.executeCdpCommand("Page.captureScreenshot", params);
+        return Base64.getDecoder().decode((String) result.get("data"));
+    }
+
+    /** Crop a full viewport PNG to the clip region, accounting for scroll offset and device pixel ratio. */
+    private static byte[] crop(WebDriver driver, byte[] png, Rectangle clip) {
+        try {
+            double dpr = 1.0;
+            long scrollX = 0;
+            long scrollY = 0;
+            if (driver instanceof JavascriptExecutor js) {
+                Object metrics = js.executeScript("return [window.devicePixelRatio || 1, window.scrollX, window.scrollY];");
+                if (metrics instanceof List<?> values && values.size() == 3) {
+                    dpr = ((Number) values.get(0)).doubleValue();
+                    scrollX = ((Number) values.get(1)).longValue();
+                    scrollY = ((Number) values.get(2)).longValue();
+                }
+            }
+            BufferedImage full = ImageIO.read(new ByteArrayInputStream(png));
+            int x = (int) Math.max(0, Math.round((clip.getX() - scrollX) * dpr));
+            int y = (int) Math.max(0, Math.round((clip.getY() - scrollY) * dpr));
+            int w = (int) Math.min(full.getWidth() - x, Math.round(clip.getWidth() * dpr));
+            int h = (int) Math.min(full.getHeight() - y, Math.round(clip.getHeight() * dpr));
+            if (w <= 0 || h <= 0) return png;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(full.getSubimage(x, y, w, h), "png", out);
+            return out.toByteArray();
+        } catch (Exception e) {
+            log.debug("Could not crop screenshot to clip {}, returning full viewport: {}", clip, e.getMessage());
+            return png;
+        }
+    }
 }
@@ -1,6 +1,11 @@
 package org.navadiya.util;
 
 import io.qameta.allure.Step;
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.metrics.LocatorTimings;
+import org.navadiya.metrics.Timings;
+import org.navadiya.metrics.WaitProfiler;
+import org.navadiya.pages.PageMetadata;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -16,43 +21,95 @@ public final class WaitUtils {
     private WaitUtils() {}
 
     /**
-     * Wait until document.readyState is 'complete'. Optionally attempts to wait for jQuery AJAX to finish if present.
+     * Wait until document.readyState is 'complete' and no jQuery AJAX request is active, checked by one
+     * script per poll. Pending AJAX alone never fails the wait; an incomplete document does.
      */
     @Step("Wait for page to fully load")
     public static void waitForPageLoad(WebDriver driver, Duration timeout) {
-        WebDriverWait wait = new WebDriverWait(driver, timeout);
-        wait.until(d -> {
-            Object state = ((JavascriptExecutor) d).executeScript("return document.readyState");
-            return "complete".equals(state);
-        });
-        // Try jQuery active == 0 (ignore errors if jQuery not present)
+        long start = System.nanoTime();
         try {
-            WebDriverWait ajaxWait = new WebDriverWait(driver, timeout);
-            ajaxWait.until(d -> {
-                Object active = ((JavascriptExecutor) d).executeScript("return window.jQuery ? jQuery.active : 0");
-                return active instanceof Long && ((Long) active) == 0L;
-            });
-        } catch (Exception ignored) {}
+            PageReady.of().documentComplete().ajaxIdle().await(driver, timeout);
+        } catch (TimeoutException e) {
+            if (PageReady.of().documentComplete().blocker(driver) != null) throw e;
+            WaitProfiler.markLastSwallowed();
+        } finally {
+            Timings.recordSince("wait:waitForPageLoad", start);
+        }
+    }
+
+    /**
+     * Wait for the full composite readiness check: readyState, jQuery AJAX and the page.ready.overlays.
+     *
+     * @throws TimeoutException naming the condition that was still blocking
+     */
+    @Step("Wait for page to be ready")
+    public static void waitForPageReady(WebDriver driver, Duration timeout) {
+        long start = System.nanoTime();
+        try {
+            PageReady.standard().await(driver, timeout);
+        } finally {
+            Timings.recordSince("wait:waitForPageReady", start);
+        }
+    }
+
+    /**
+     * Wait until no request has been in flight for idleTime (fetch/XHR/documents, see {@link NetworkIdle}).
+     * Returns as soon as the quiet window is reached, which replaces fixed sleeps on SPA pages.
+     */
+    @Step("Wait for network idle ({idleTime})")
+    public static void waitForNetworkIdle(WebDriver driver, Duration idleTime, Duration timeout) {
+        waitForNetworkIdle(driver, idleTime, 0, timeout);
+    }
+
+    /**
+     * Like {@link #waitForNetworkIdle(WebDriver, Duration, Duration)} but tolerates up to maxInFlight
+     * long-lived requests (polling, analytics beacons).
+     */
+    public static void waitForNetworkIdle(WebDriver driver, Duration idleTime, int maxInFlight, Duration timeout) {
+        long start = System.nanoTime();
+        try {
+            NetworkIdle.await(driver, idleTime, maxInFlight, timeout);
+        } finally {
+            Timings.recordSince("wait:waitForNetworkIdle", start);
+        }
     }
 
+    /** Locator waits are also timed per caller in {@link LocatorTimings}. */
     @Step("Wait for element visible: {locator}")
     public static WebElement waitForVisible(WebDriver driver, By locator, Duration timeout) {
-        return new WebDriverWait(driver, timeout).until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return Timings.time("wait:waitForVisible", () -> LocatorTimings.time(LocatorTimings.caller(), locator, () ->
+                ObserverWait.until(driver, locator, ObserverWait.Condition.VISIBLE, timeout,
+                remaining -> AdaptiveWait.create(driver, remaining, "visible:" + locator).until(ExpectedConditions.visibilityOfElementLocated(locator)))));
     }
 
     @Step("Wait for element visible: {locator}")
     public static WebElement waitForVisible(WebDriver driver, WebElement locator, Duration timeout) {
-        return new WebDriverWait(driver, timeout).until(ExpectedConditions.visibilityOf(locator));
+        return Timings.time("wait:waitForVisible", () -> ObserverWait.until(driver, locator, ObserverWait.Condition.VISIBLE, timeout,
+                remaining -> elementWait(driver, remaining, "visible", locator).until(ExpectedConditions.visibilityOf(locator))));
     }
 
     @Step("Wait for element clickable: {locator}")
     public static WebElement waitForClickable(WebDriver driver, By locator, Duration timeout) {
-        return new WebDriverWait(driver, timeout).until(ExpectedConditions.elementToBeClickable(locator));
+        return Timings.time("wait:waitForClickable", () -> LocatorTimings.time(LocatorTimings.caller(), locator, () ->
+                ObserverWait.until(driver, locator, ObserverWait.Condition.CLICKABLE, timeout,
+                remaining -> AdaptiveWait.create(driver, remaining, "clickable:" + locator).until(ExpectedConditions.elementToBeClickable(locator)))));
     }
 
     @Step("Wait for element clickable: {locator}")
     public static WebElement waitForClickable(WebDriver driver, WebElement locator, Duration timeout) {
-        return new WebDriverWait(driver, timeout).until(ExpectedConditions.elementToBeClickable(locator));
+        return Timings.time("wait:waitForClickable", () -> ObserverWait.until(driver, locator, ObserverWait.Condition.CLICKABLE, timeout,
+                remaining -> elementWait(driver, remaining, "clickable", locator).until(ExpectedConditions.elementToBeClickable(locator))));
+    }
+
+    /**
+     * Element waits learn under the page object's locator; other elements only have per-session ids in
+     * their toString, so they poll without history instead of filling the table with single-use keys.
+     */
+    private static WebDriverWait elementWait(WebDriver driver, Duration timeout, String condition, WebElement element) {
+        By by = PageMetadata.locatorOf(element);
+        return by != null
+                ? AdaptiveWait.create(driver, timeout, condition + ":" + by)
+                : AdaptiveWait.withoutHistory(driver, timeout, condition + ":element");
     }
 
     @Step("Click when clickable: {locator}")
@@ -64,14 +121,24 @@ public final class WaitUtils {
      * Generic wait for custom condition.
      */
     public static <T> T waitFor(WebDriver driver, Duration timeout, Function<WebDriver, T> condition) {
-        return new WebDriverWait(driver, timeout).until(condition);
+        return Timings.time("wait:waitFor", () -> AdaptiveWait.create(driver, timeout, "waitFor").until(condition));
+    }
+
+    /**
+     * Generic wait for custom condition, polling adaptively based on how long the same key usually takes.
+     */
+    public static <T> T waitFor(WebDriver driver, Duration timeout, String key, Function<WebDriver, T> condition) {
+        return Timings.time("wait:waitFor", () -> AdaptiveWait.create(driver, timeout, key).until(condition));
     }
+    /**
+     * Wait until none of the page.ready.overlays selectors is visible. A timeout is tolerated.
+     */
     public static void waitForOverlayGone(WebDriver driver, Duration timeout) {
-        WebDriverWait wait = new WebDriverWait(driver, timeout);
-        By byId = By.id("captchaModalOverlay");
-        By byClass = By.cssSelector(".captcha-overlay");
-        try { wait.until(ExpectedConditions.invisibilityOfElementLocated(byId)); } catch (Exception ignored) {}
-        try { wait.until(ExpectedConditions.invisibilityOfElementLocated(byClass)); } catch (Exception ignored) {}
+        long start = System.nanoTime();
+        PageReady overlays = PageReady.of();
+        for (String selector : ApplicationConfig.getPageReadyOverlays()) overlays.overlay(selector);
+        try { overlays.await(driver, timeout); } catch (Exception ignored) { WaitProfiler.markLastSwallowed(); }
+        Timings.recordSince("wait:waitForOverlayGone", start);
     }
 
     @Step("Type into element when interactable (human-like optional): {locator}")
@@ -79,26 +146,26 @@ public final class WaitUtils {
         typeWhenInteractable(driver, locator, timeout, text, false);
     }
 
+    /**
+     * @param humanLike type with the configured {@link InputSpeed} profile (human by default) instead of a plain sendKeys
+     */
     public static void typeWhenInteractable(WebDriver driver, By locator, Duration timeout, CharSequence text, boolean humanLike) throws InterruptedException {
+        typeWhenInteractable(driver, locator, timeout, text, humanLike ? InputSpeed.current() : InputSpeed.FAST);
+    }
+
+    public static void typeWhenInteractable(WebDriver driver, By locator, Duration timeout, CharSequence text, InputSpeed speed) throws InterruptedException {
         waitForOverlayGone(driver, timeout);
-        WebDriverWait wait = new WebDriverWait(driver, timeout);
-        WebElement el = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        WebDriverWait wait = AdaptiveWait.create(driver, timeout, "interactable:" + locator);
+        WebElement el = LocatorTimings.time(LocatorTimings.caller(), locator,
+                () -> wait.until(ExpectedConditions.visibilityOfElementLocated(locator)));
         wait.until(d -> { try { return el.isEnabled(); } catch (StaleElementReferenceException e) { return false; } });
         try { ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block:'center'});", el); } catch (Exception ignored) {}
         wait.until(ExpectedConditions.elementToBeClickable(locator));
         try {
             el.clear();
-            if (humanLike) {
-                Thread.sleep(2000);
-                humanType(el, text.toString(), 200, 400); // 25-90ms per key
-            } else {
-                el.sendKeys(text);
-            }
+            speed.type(driver, el, text, 2000, 200, 400);
         } catch (ElementNotInteractableException ex) {
-            ((JavascriptExecutor) driver).executeScript(
-                "arguments[0].value = arguments[1]; arguments[0].dispatchEvent(new Event('input',{bubbles:true}));",
-                el, text.toString()
-            );
+            InputSpeed.setValue(driver, el, text);
         }
     }
 
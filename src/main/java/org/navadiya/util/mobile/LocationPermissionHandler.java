@@ -2,15 +2,16 @@ package org.navadiya.util.mobile;
 
 import io.appium.java_client.AppiumBy;
 import io.appium.java_client.AppiumDriver;
+import org.navadiya.metrics.WaitProfiler;
+import org.navadiya.util.FirstOf;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * Simple utility to handle location permission prompts for Android and iOS.
@@ -62,8 +63,6 @@ public class LocationPermissionHandler {
     private static boolean handleLocationPermission(WebDriver driver, String androidText, String iosText) {
         try {
             AppiumDriver appiumDriver = (AppiumDriver) driver;
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
-
             boolean isAndroid = isAndroidDevice(appiumDriver);
             String buttonText = isAndroid ? androidText : iosText;
 
@@ -71,9 +70,9 @@ public class LocationPermissionHandler {
                     isAndroid ? "Android" : "iOS", buttonText);
 
             if (isAndroid) {
-                return handleAndroid(wait, androidText);
+                return handleAndroid(driver, androidText);
             } else {
-                return handleIOS(wait, iosText);
+                return handleIOS(driver, iosText);
             }
         } catch (Exception e) {
             log.debug("No location permission prompt found: {}", e.getMessage());
@@ -84,9 +83,9 @@ public class LocationPermissionHandler {
     /**
      * Handle Android location permission.
      */
-    private static boolean handleAndroid(WebDriverWait wait, String buttonText) {
+    private static boolean handleAndroid(WebDriver driver, String buttonText) {
         try {
-            // Try multiple Android locator strategies
+            // All strategies are raced on every poll; the one that usually wins is tried first
             By[] locators = {
                     // Web-based (for Chrome/WebView) - using standard Selenium locators
                     By.xpath(String.format("//button[normalize-space()='%s']", buttonText)),
@@ -101,17 +100,15 @@ public class LocationPermissionHandler {
                     AppiumBy.id("com.android.permissioncontroller:id/permission_allow_button")
             };
 
-            for (By locator : locators) {
-                try {
-                    WebElement button = wait.until(ExpectedConditions.elementToBeClickable(locator));
-                    button.click();
-                    log.info("✅ Android location permission handled: '{}'", buttonText);
-                    return true;
-                } catch (Exception e) {
-                    log.trace("Locator failed: {}", locator);
-                }
+            try {
+                FirstOf.Match match = FirstOf.find(driver, "android-location-permission", List.of(locators), true, Duration.ofSeconds(DEFAULT_TIMEOUT));
+                match.element().click();
+                log.info("✅ Android location permission handled: '{}' (matched by {})", buttonText, match.locator());
+                return true;
+            } catch (TimeoutException e) {
+                WaitProfiler.markLastSwallowed();
+                return false;
             }
-            return false;
         } catch (Exception e) {
             log.debug("Could not handle Android permission: {}", e.getMessage());
             return false;
@@ -121,9 +118,9 @@ public class LocationPermissionHandler {
     /**
      * Handle iOS location permission.
      */
-    private static boolean handleIOS(WebDriverWait wait, String buttonText) {
+    private static boolean handleIOS(WebDriver driver, String buttonText) {
         try {
-            // Try multiple iOS locator strategies
+            // All strategies are raced on every poll; the one that usually wins is tried first
             By[] locators = {
                     // Accessibility ID (most reliable for iOS)
                     AppiumBy.accessibilityId(buttonText),
@@ -135,17 +132,15 @@ public class LocationPermissionHandler {
                     AppiumBy.xpath(String.format("//XCUIElementTypeButton[@label='%s']", buttonText))
             };
 
-            for (By locator : locators) {
-                try {
-                    WebElement button = wait.until(ExpectedConditions.elementToBeClickable(locator));
-                    button.click();
-                    log.info("✅ iOS location permission handled: '{}'", buttonText);
-                    return true;
-                } catch (Exception e) {
-                    log.trace("Locator failed: {}", locator);
-                }
+            try {
+                FirstOf.Match match = FirstOf.find(driver, "ios-location-permission", List.of(locators), true, Duration.ofSeconds(DEFAULT_TIMEOUT));
+                match.element().click();
+                log.info("✅ iOS location permission handled: '{}' (matched by {})", buttonText, match.locator());
+                return true;
+            } catch (TimeoutException e) {
+                WaitProfiler.markLastSwallowed();
+                return false;
             }
-            return false;
         } catch (Exception e) {
             log.debug("Could not handle iOS permission: {}", e.getMessage());
             return false;
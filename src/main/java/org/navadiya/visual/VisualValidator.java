@@ -1,9 +1,9 @@
 package org.navadiya.visual;
 
 import io.qameta.allure.Allure;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import org.navadiya.util.ScreenshotUtils;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.opencv.core.*;
 import org.opencv.features2d.BFMatcher;
 import org.opencv.features2d.DescriptorMatcher;
@@ -48,12 +48,30 @@ public class VisualValidator {
     }
 
 
+    /**
+     * Capture a lossless PNG of the viewport, or of a single element when one is given.
+     * Chromium sessions clip browser-side via CDP; other browsers use TakesScreenshot.
+     */
+    private static byte[] capturePng(WebDriver driver, WebElement element) {
+        ScreenshotUtils.Screenshot shot = (element == null)
+                ? ScreenshotUtils.capture(driver, ScreenshotUtils.Format.PNG, 100, null)
+                : ScreenshotUtils.captureElement(driver, element, ScreenshotUtils.Format.PNG, 100);
+        return shot.bytes();
+    }
+
     /**
      * Take screenshot and save to file
      */
     public static String takeAndSaveScreenshot(WebDriver driver, String name) {
+        return takeAndSaveScreenshot(driver, null, name);
+    }
+
+    /**
+     * Take screenshot of a single element (or the viewport when element is null) and save to file
+     */
+    public static String takeAndSaveScreenshot(WebDriver driver, WebElement element, String name) {
         try {
-            byte[] bytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            byte[] bytes = capturePng(driver, element);
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String fileName = name.replaceAll("[^a-zA-Z0-9]", "_") + "_" + timestamp + ".png";
 
@@ -302,8 +320,15 @@ public class VisualValidator {
      * Save baseline image for future comparisons
      */
     public static String saveBaseline(WebDriver driver, String name) {
+        return saveBaseline(driver, null, name);
+    }
+
+    /**
+     * Save baseline image of a single element (or the viewport when element is null)
+     */
+    public static String saveBaseline(WebDriver driver, WebElement element, String name) {
         try {
-            byte[] bytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            byte[] bytes = capturePng(driver, element);
             String fileName = name.replaceAll("[^a-zA-Z0-9]", "_") + ".png";
 
             Path baselineDir = Paths.get(BASELINE_DIR);
@@ -329,7 +354,20 @@ public class VisualValidator {
      * @return true if current screen matches baseline
      */
     public static boolean validateAgainstBaseline(WebDriver driver, String baselineName, double threshold) {
-        String actualPath = takeAndSaveScreenshot(driver, baselineName);
+        return validateAgainstBaseline(driver, null, baselineName, threshold);
+    }
+
+    /**
+     * Compare a single element with its baseline. The element is clipped browser-side on Chromium.
+     *
+     * @param driver WebDriver instance
+     * @param element Element to capture, or null for the whole viewport
+     * @param baselineName Name of the baseline image
+     * @param threshold Similarity threshold (0.0 to 1.0)
+     * @return true if the element matches baseline
+     */
+    public static boolean validateAgainstBaseline(WebDriver driver, WebElement element, String baselineName, double threshold) {
+        String actualPath = takeAndSaveScreenshot(driver, element, baselineName);
         if (actualPath == null) {
             return false;
         }
@@ -339,7 +377,7 @@ public class VisualValidator {
         File baselineFile = new File(baselinePath);
         if (!baselineFile.exists()) {
             log.warn("Baseline not found: {}. Creating new baseline.", baselinePath);
-            saveBaseline(driver, baselineName);
+            saveBaseline(driver, element, baselineName);
             return true; // First run, assume pass
         }
 
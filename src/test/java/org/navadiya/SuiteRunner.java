@@ -1,19 +1,22 @@
 package org.navadiya;
 
 import org.navadiya.config.ApplicationConfig;
+import org.navadiya.discovery.DependencyGraph;
+import org.navadiya.discovery.TestImpact;
+import org.navadiya.discovery.TestIndex;
+import org.navadiya.history.TestHistory;
+import org.navadiya.history.TestShards;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.TestNG;
 import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlTest;
 
-import java.io.File;
-import java.util.jar.JarFile;
-import java.nio.file.Files;
-import java.util.*;
+import java.net.URISyntaxException;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.util.*;
 
 
 public class SuiteRunner {
@@ -31,6 +34,44 @@ public class SuiteRunner {
         log.info("Env={}, browsers={}, parallel={}, threads={}, rerunAttempts={}, testClass={}",
                 env, Arrays.toString(browsers), parallel, threads, rerunAttempts, testClass);
 
+        // sharding splits test methods across shard.count processes by their recorded durations;
+        // history ordering runs recent failures, flaky and long tests first
+        int shardCount = ApplicationConfig.getShardCount();
+        int shardIndex = ApplicationConfig.getShardIndex();
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("shard.index=" + shardIndex + " is outside [0, " + (shardCount - 1) + "] for shard.count=" + shardCount);
+        }
+        boolean historyOrdering = ApplicationConfig.isHistoryOrderingEnabled();
+        // shards plan from the shared history as it is and record their results in their own file,
+        // merged by HistoryMerge after the job, so that every shard computes the same plan
+        Path historyFile = Path.of(ApplicationConfig.getHistoryFile());
+        Path resultsFile = shardCount > 1 ? TestHistory.shardFile(historyFile, shardIndex) : historyFile;
+        TestHistory history = null;
+        if (shardCount > 1 || historyOrdering) {
+            int imported = 0;
+            if (shardCount > 1) {
+                deleteQuietly(resultsFile); // left over from an earlier job that was not merged
+            } else {
+                String allureDir = ApplicationConfig.getProperty("allure.results.directory");
+                imported = TestHistory.importAllure(Path.of(allureDir == null ? "target/allure-results" : allureDir), historyFile);
+            }
+            history = TestHistory.load(historyFile);
+            log.info("Shard {}/{}, history ordering={}: {} history entries ({} imported from Allure results)",
+                    shardIndex, shardCount, historyOrdering, history.size(), imported);
+        }
+
+        // impact selection: only test classes that reach code changed since impact.since
+        TestImpact impact = null;
+        String since = ApplicationConfig.getImpactSince();
+        if (since != null) {
+            List<Path> roots = List.of(codeSource(ApplicationConfig.class), codeSource(SuiteRunner.class));
+            DependencyGraph graph = DependencyGraph.build(roots, Path.of(ApplicationConfig.getImpactGraphFile()));
+            // the runner, and the ServiceLoader providers nothing names, reach every test
+            List<String> infrastructure = new ArrayList<>(List.of(SuiteRunner.class.getName()));
+            infrastructure.addAll(TestImpact.serviceProviders(roots));
+            impact = TestImpact.since(since, graph, infrastructure);
+        }
+
         // build suites
         List<XmlSuite> suites = new ArrayList<>();
         for (String b : browsers) {
@@ -62,6 +103,14 @@ public class SuiteRunner {
                 log.error("No test classes specified. Check 'suite.testClass' property in application/environments configuration.");
                 throw new IllegalStateException("No test classes configured for SuiteRunner");
             }
+            if (impact != null) {
+                testClasses = impact.filter(Arrays.asList(testClasses)).toArray(new String[0]);
+                if (testClasses.length == 0) {
+                    log.info("No test classes affected by changes since {}, skipping {}", since, s.getName());
+                    continue;
+                }
+            }
+             List<Class<?>> classes = new ArrayList<>();
              for (String tc : testClasses) {
                  tc = tc.trim();
                  if (tc.isEmpty()) continue;
@@ -73,86 +122,131 @@ public class SuiteRunner {
                          // Try context classloader as a fallback
                          clazz = Thread.currentThread().getContextClassLoader().loadClass(tc);
                      }
-                     t.getClasses().add(new XmlClass(clazz));
+                     classes.add(clazz);
                  } catch (ClassNotFoundException e) {
                      String cp = System.getProperty("java.class.path");
                      log.error("Cannot find test class '{}' on classpath. java.class.path={}", tc, cp);
                      throw new RuntimeException("Test class not found on classpath: " + tc + ". Ensure test classes are available when running the runner.", e);
                  }
              }
+             if (shardCount > 1) {
+                 Set<String> mine = shardTests(browser, classes, history, shardIndex, shardCount);
+                 for (Class<?> clazz : classes) {
+                     List<XmlInclude> includes = TestIndex.testMethodsOf(clazz.getName()).stream()
+                             .filter(m -> mine.contains(clazz.getName() + "#" + m))
+                             .map(XmlInclude::new)
+                             .toList();
+                     if (includes.isEmpty()) continue;
+                     XmlClass xmlClass = new XmlClass(clazz);
+                     xmlClass.setIncludedMethods(new ArrayList<>(includes));
+                     t.getClasses().add(xmlClass);
+                 }
+                 if (t.getClasses().isEmpty()) {
+                     log.info("Shard {}/{} has no tests for {}, skipping its suite", shardIndex, shardCount, browser);
+                     continue;
+                 }
+             } else {
+                 for (Class<?> clazz : classes) t.getClasses().add(new XmlClass(clazz));
+             }
              suites.add(s);
         }
 
-        // first run
+        // first run, then deferred reruns of infrastructure/timeout/stale failures on fresh sessions
         // Run each browser's suite separately so we get a per-browser testng-failed.xml
+        boolean deferredRetries = rerunAttempts > 0 && ApplicationConfig.isRetryDeferred();
         for (XmlSuite s : suites) {
-            TestNG single = new TestNG();
-            single.setXmlSuites(Collections.singletonList(s));
-            // Allure TestNG listener is usually auto-registered via ServiceLoader (allure-testng). Avoid adding it explicitly to prevent duplicate listener warnings.
-            if (rerunAttempts > 0) {
+            org.navadiya.listeners.HistoryListener historyListener = new org.navadiya.listeners.HistoryListener(resultsFile, deferredRetries);
+            org.navadiya.listeners.DeferredRetryListener retries = new org.navadiya.listeners.DeferredRetryListener();
+            TestNG single = newRun(s, historyListener, history);
+            if (deferredRetries) {
+                single.addListener(retries);
+            } else if (rerunAttempts > 0) {
                single.addListener(new org.navadiya.listeners.RetryAnnotationTransformer());
                 log.info("Retry listeners registered (rerunAttempts={}) for suite: {}", rerunAttempts, s.getName());
             }
             single.run();
+
+            for (int attempt = 1; deferredRetries && attempt <= rerunAttempts && !retries.retries().isEmpty(); attempt++) {
+                XmlSuite rerun = rerunSuite(s, retries.retries(), attempt);
+                log.info("Rerun {}/{} of {}: {}", attempt, rerunAttempts, s.getName(), retries.retries());
+                retries = new org.navadiya.listeners.DeferredRetryListener();
+                historyListener.setFinalPass(attempt == rerunAttempts);
+                TestNG again = newRun(rerun, historyListener, history);
+                again.addListener(retries);
+                again.run();
+            }
+            historyListener.save();
         }
         log.info("Execution finished");
     }
 
-    // Discover test classes in the given package by scanning classpath directories and jars.
-    private static List<String> discoverTestClassesInPackage(String pkg) {
-        List<String> result = new ArrayList<>();
-        String pkgPath = pkg.replace('.', '/');
-        String classpath = System.getProperty("java.class.path", "");
-        String[] entries = classpath.split(File.pathSeparator);
-        for (String entry : entries) {
-            try {
-                File f = new File(entry);
-                if (f.isDirectory()) {
-                    File pkgDir = new File(f, pkg.replace('.', File.separatorChar));
-                    if (pkgDir.exists() && pkgDir.isDirectory()) {
-                        try (Stream<Path> walk = Files.walk(pkgDir.toPath())) {
-                            walk.filter(p -> p.toString().endsWith(".class"))
-                                .forEach(p -> {
-                                    String rel = pkgDir.toPath().relativize(p).toString();
-                                    String className = rel.replace(File.separatorChar, '.').replaceAll("\\.class$", "");
-                                    if (!className.contains("$")) {
-                                        String fqcn = pkg + "." + className;
-                                        if (isTestClass(fqcn)) result.add(fqcn);
-                                    }
-                                });
-                        }
-                    }
-                } else if (f.isFile() && f.getName().endsWith(".jar")) {
-                    try (JarFile jf = new JarFile(f)) {
-                        Enumeration<java.util.jar.JarEntry> en = jf.entries();
-                        while (en.hasMoreElements()) {
-                            java.util.jar.JarEntry je = en.nextElement();
-                            String name = je.getName();
-                            if (name.startsWith(pkgPath) && name.endsWith(".class") && !name.contains("$")) {
-                                String fqcn = name.replace('/', '.').replaceAll("\\.class$", "");
-                                if (isTestClass(fqcn)) result.add(fqcn);
-                            }
-                        }
-                    }
-                }
-            } catch (Exception ignored) {}
+    private static TestNG newRun(XmlSuite suite, org.navadiya.listeners.HistoryListener historyListener, TestHistory history) {
+        TestNG run = new TestNG();
+        run.setXmlSuites(Collections.singletonList(suite));
+        // Allure TestNG listener is usually auto-registered via ServiceLoader (allure-testng). Avoid adding it explicitly to prevent duplicate listener warnings.
+        // suite/test parameters (env, browser, any config key) become this suite's configuration scope
+        run.addListener(new org.navadiya.listeners.ConfigScopeListener());
+        run.addListener(new org.navadiya.listeners.TestListener());
+        run.addListener(new org.navadiya.listeners.SuiteMetricsListener());
+        run.addListener(historyListener);
+        if (ApplicationConfig.isHistoryOrderingEnabled()) run.addListener(new org.navadiya.listeners.HistoryOrderInterceptor(history));
+        return run;
+    }
+
+    // Suite that reruns only the given methods, with the original parameters and retry.threads threads.
+    // Every test method creates its own driver in BaseTest, so reruns get fresh sessions.
+    private static XmlSuite rerunSuite(XmlSuite original, Map<String, Set<String>> methods, int attempt) {
+        XmlSuite s = new XmlSuite();
+        s.setName(original.getName() + "-rerun-" + attempt);
+        s.getParameters().putAll(original.getParameters());
+        int threads = ApplicationConfig.getRetryThreads();
+        s.setParallel(threads > 1 ? XmlSuite.ParallelMode.METHODS : XmlSuite.ParallelMode.NONE);
+        if (threads > 1) s.setThreadCount(threads);
+        XmlTest originalTest = original.getTests().get(0);
+        XmlTest t = new XmlTest(s);
+        t.setName(originalTest.getName());
+        t.setParameters(new HashMap<>(originalTest.getLocalParameters()));
+        methods.forEach((cls, names) -> {
+            XmlClass xmlClass = new XmlClass(cls);
+            xmlClass.setIncludedMethods(new ArrayList<>(names.stream().map(XmlInclude::new).toList()));
+            t.getClasses().add(xmlClass);
+        });
+        return s;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            java.nio.file.Files.deleteIfExists(file);
+        } catch (java.io.IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
         }
-        // remove duplicates and sort
-        return result.stream().distinct().sorted().toList();
     }
 
-    private static boolean isTestClass(String fqcn) {
+    // Methods (Class#method) of the given classes that belong to this shard; every shard computes the same plan.
+    private static Set<String> shardTests(String browser, List<Class<?>> classes, TestHistory history, int shardIndex, int shardCount) {
+        List<String> tests = new ArrayList<>();
+        for (Class<?> clazz : classes) {
+            for (String m : TestIndex.testMethodsOf(clazz.getName())) tests.add(clazz.getName() + "#" + m);
+        }
+        List<TestShards.Shard> plan = TestShards.plan(tests, test -> history.durationMillis(browser, test), shardCount);
+        for (TestShards.Shard shard : plan) {
+            log.info("{} shard {}: {} tests, estimated {} s ({} without history)", browser, shard.index(),
+                    shard.tests().size(), shard.estimatedMillis() / 1000, shard.unknown());
+        }
+        return new HashSet<>(plan.get(shardIndex).tests());
+    }
+
+    // Directory (or jar) the class was loaded from, e.g. target/test-classes.
+    private static Path codeSource(Class<?> clazz) {
         try {
-            Class<?> c = Class.forName(fqcn);
-            // exclude abstract classes and interfaces
-            if (c.isInterface() || java.lang.reflect.Modifier.isAbstract(c.getModifiers())) return false;
-            // include if any method has TestNG @Test
-            for (java.lang.reflect.Method m : c.getDeclaredMethods()) {
-                if (m.isAnnotationPresent(org.testng.annotations.Test.class)) return true;
-            }
-        } catch (Throwable t) {
-            // ignore load failures
+            return Path.of(clazz.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate classes of " + clazz.getName(), e);
         }
-        return false;
+    }
+
+    // Test classes in the given package, from the build-time test index (bytecode scan when it is missing).
+    private static List<String> discoverTestClassesInPackage(String pkg) {
+        return TestIndex.discover(pkg).classesIn(pkg);
     }
 }
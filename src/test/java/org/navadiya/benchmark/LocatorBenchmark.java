@@ -0,0 +1,79 @@
+package org.navadiya.benchmark;
+
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.driver.DriverManager;
+import org.navadiya.pages.LocatorOptimizer;
+import org.navadiya.util.WaitUtils;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Offline benchmark for {@link LocatorOptimizer}: opens a page, then for every {@code @FindBy} field of the
+ * given page classes that the optimizer rewrites, checks that original and rewritten locators find the same
+ * elements and compares their lookup time.
+ *
+ * <pre>
+ * mvn -q exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.navadiya.benchmark.LocatorBenchmark \
+ *     -Dexec.args="https://stage.vwo.com org.navadiya.pages.LoginPage" -Dbench.iterations=20
+ * </pre>
+ * Without arguments the environment's app.url and {@code org.navadiya.pages.LoginPage} are used.
+ */
+public class LocatorBenchmark {
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : ApplicationConfig.getEnvProperty("app.url");
+        List<String> pages = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of("org.navadiya.pages.LoginPage");
+        int iterations = Integer.getInteger("bench.iterations", 20);
+        String browser = System.getProperty("browser", "chrome");
+
+        DriverManager.createDriver(browser);
+        try {
+            WebDriver driver = DriverManager.getDriver();
+            driver.get(url);
+            WaitUtils.waitForPageLoad(driver, Duration.ofSeconds(ApplicationConfig.getTimeoutSeconds()));
+            System.out.printf(Locale.ROOT, "Locator benchmark on %s (%s, %d iterations)%n%n", url, browser, iterations);
+            System.out.printf(Locale.ROOT, "%-40s %-6s %5s %12s %12s %8s%n", "field", "same", "found", "original ms", "rewrite ms", "speedup");
+            for (String page : pages) {
+                for (Field field : elementFields(Class.forName(page))) {
+                    By original = new Annotations(field).buildBy();
+                    By rewritten = LocatorOptimizer.optimize(original);
+                    if (rewritten == original) continue;
+                    List<WebElement> expected = driver.findElements(original);
+                    List<WebElement> actual = driver.findElements(rewritten);
+                    double originalMs = time(driver, original, iterations);
+                    double rewrittenMs = time(driver, rewritten, iterations);
+                    System.out.printf(Locale.ROOT, "%-40s %-6s %5d %12.2f %12.2f %7.1fx%n",
+                            field.getDeclaringClass().getSimpleName() + "." + field.getName(), expected.equals(actual),
+                            expected.size(), originalMs, rewrittenMs, rewrittenMs == 0 ? 0 : originalMs / rewrittenMs);
+                }
+            }
+        } finally {
+            DriverManager.quitDriver();
+        }
+    }
+
+    /** Mean wall-clock time of one findElements call, in milliseconds, after one warm-up call. */
+    private static double time(WebDriver driver, By by, int iterations) {
+        driver.findElements(by);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) driver.findElements(by);
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    private static List<Field> elementFields(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(f -> f.getAnnotation(FindBy.class) != null || f.getAnnotation(FindBys.class) != null
+                        || f.getAnnotation(FindAll.class) != null)
+                .toList();
+    }
+}
@@ -0,0 +1,76 @@
+package org.navadiya.listeners;
+
+import org.navadiya.config.ConfigScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds a configuration scope per suite and per {@code <test>} from their TestNG parameters and binds the
+ * test's scope to the worker thread around every test and configuration method. Parameters are used as
+ * configuration keys (e.g. app.timeout.seconds); "env" sets app.env.default and "browser" the browser.
+ */
+public class ConfigScopeListener implements ISuiteListener, ITestListener, IInvokedMethodListener {
+    private static final Logger log = LoggerFactory.getLogger(ConfigScopeListener.class);
+
+    private static final String SCOPE = ConfigScope.class.getName();
+    private static final String BINDING = ConfigScope.Binding.class.getName();
+
+    @Override
+    public void onStart(ISuite suite) {
+        ConfigScope scope = ConfigScope.root(suite.getName(), overrides(suite.getXmlSuite().getParameters()));
+        suite.setAttribute(SCOPE, scope);
+        log.debug("Suite {} uses env={} browser={}", suite.getName(), scope.snapshot().env(), scope.snapshot().get("browser"));
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        Object suiteScope = context.getSuite().getAttribute(SCOPE);
+        Map<String, String> params = context.getCurrentXmlTest() == null
+                ? Map.of() : overrides(context.getCurrentXmlTest().getLocalParameters());
+        ConfigScope scope = suiteScope instanceof ConfigScope parent
+                ? parent.child(context.getName(), params)
+                : ConfigScope.root(context.getName(), params);
+        context.setAttribute(SCOPE, scope);
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        ConfigScope.Binding binding = bind(testResult);
+        if (binding != null) testResult.setAttribute(BINDING, binding);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (testResult.getAttribute(BINDING) instanceof ConfigScope.Binding binding) {
+            testResult.removeAttribute(BINDING);
+            binding.close();
+        }
+    }
+
+    /**
+     * Bind the configuration scope of result's {@code <test>} to the current thread, or return null when it has
+     * none. The binding made around a test method is closed before the ITestListener result callbacks run, so
+     * listeners that use the configuration there (e.g. a failure screenshot) bind it again with this.
+     */
+    public static ConfigScope.Binding bind(ITestResult result) {
+        ITestContext context = result.getTestContext();
+        return context != null && context.getAttribute(SCOPE) instanceof ConfigScope scope ? scope.bind() : null;
+    }
+
+    private static Map<String, String> overrides(Map<String, String> parameters) {
+        Map<String, String> overrides = new HashMap<>(parameters);
+        String env = overrides.remove("env");
+        if (env != null && !env.isBlank()) overrides.put("app.env.default", env.trim());
+        return overrides;
+    }
+}
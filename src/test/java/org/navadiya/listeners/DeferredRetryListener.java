@@ -0,0 +1,55 @@
+package org.navadiya.listeners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Collects the test methods of one run whose failure {@link FailureClassifier} considers retryable, so that
+ * SuiteRunner can rerun them together at the end of the suite on fresh sessions. Tests skipped because a
+ * configuration method failed for such a reason (e.g. no session could be created) are collected too.
+ * Assertion and other failures are only logged: rerunning them would not change the outcome.
+ */
+public class DeferredRetryListener implements ITestListener {
+    private static final Logger log = LoggerFactory.getLogger(DeferredRetryListener.class);
+
+    /** Class name → methods to rerun. */
+    private final Map<String, Set<String>> retries = new TreeMap<>();
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        collect(result, "failed");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.getThrowable() != null && !result.wasRetried()) collect(result, "skipped");
+    }
+
+    /** Methods to rerun by class name. */
+    public synchronized Map<String, Set<String>> retries() {
+        Map<String, Set<String>> copy = new TreeMap<>();
+        retries.forEach((cls, methods) -> copy.put(cls, new TreeSet<>(methods)));
+        return copy;
+    }
+
+    private void collect(ITestResult result, String status) {
+        FailureClassifier.Kind kind = FailureClassifier.classify(result.getThrowable());
+        String cls = result.getTestClass().getName();
+        String method = result.getMethod().getMethodName();
+        if (!kind.retryable()) {
+            log.info("Not retrying {}#{}: {} {}", cls, method, status, kind);
+            return;
+        }
+        log.info("Deferring retry of {}#{}: {} {} ({})", cls, method, status, kind, result.getThrowable().getClass().getSimpleName());
+        synchronized (this) {
+            retries.computeIfAbsent(cls, k -> new TreeSet<>()).add(method);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.navadiya.listeners;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+/**
+ * Classifies test failures so that only those a rerun can fix are retried. Infrastructure (dead or unreachable
+ * sessions, Grid and connection errors), timeouts and stale elements are retryable; assertion failures and
+ * everything else (e.g. a missing element, a product exception) are reported as they are.
+ */
+public final class FailureClassifier {
+
+    public enum Kind {
+        INFRASTRUCTURE(true), TIMEOUT(true), STALE(true), ASSERTION(false), OTHER(false);
+
+        private final boolean retryable;
+
+        Kind(boolean retryable) {
+            this.retryable = retryable;
+        }
+
+        public boolean retryable() {
+            return retryable;
+        }
+    }
+
+    /** WebDriverException messages of browsers or sessions that went away. */
+    private static final List<String> INFRASTRUCTURE_MESSAGES = List.of(
+            "not reachable", "session deleted", "disconnected", "connection refused", "could not start a new session",
+            "target window already closed", "net::err_");
+
+    private FailureClassifier() {}
+
+    /** Kind of the failure t, judged by t and its causes (an assertion on top always wins). */
+    public static Kind classify(Throwable t) {
+        if (t == null) return Kind.OTHER;
+        if (t instanceof AssertionError) return Kind.ASSERTION;
+        for (Throwable c = t; c != null; c = c.getCause() == c ? null : c.getCause()) {
+            if (c instanceof NoSuchSessionException || c instanceof SessionNotCreatedException
+                    || c instanceof UnreachableBrowserException || c instanceof ConnectException) {
+                return Kind.INFRASTRUCTURE;
+            }
+            if (c instanceof StaleElementReferenceException) return Kind.STALE;
+            if (c instanceof TimeoutException || c instanceof ScriptTimeoutException
+                    || c instanceof SocketTimeoutException || c instanceof java.util.concurrent.TimeoutException) {
+                return Kind.TIMEOUT;
+            }
+            String message = c.getMessage() == null ? "" : c.getMessage().toLowerCase();
+            if (INFRASTRUCTURE_MESSAGES.stream().anyMatch(message::contains)) return Kind.INFRASTRUCTURE;
+        }
+        return Kind.OTHER;
+    }
+}
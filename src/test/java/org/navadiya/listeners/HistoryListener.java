@@ -0,0 +1,81 @@
+package org.navadiya.listeners;
+
+import org.navadiya.history.TestHistory;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how long each test method took on the suite's browser and how it ended; {@link #save()} merges them
+ * into the test history file (a sharded run's own shard file) once the suite and its deferred rerun passes are done (the same listener is
+ * registered on every pass). All invocations of a method (data provider rows, retries) are added up, since
+ * the method is the unit that shards and ordering work with; a failed invocation makes the method failed, a
+ * retried one makes a pass a {@link TestHistory.Outcome#RETRIED}. Other skips are not counted. A retryable
+ * failure is only recorded as retried while another rerun pass follows; on the final pass it is a failure.
+ */
+public class HistoryListener implements ITestListener {
+
+    private final Map<String, TestHistory.Run> runs = new ConcurrentHashMap<>();
+    private final Path file;
+    /** Whether retryable failures are rerun at the end of the suite, so they are not final yet. */
+    private final boolean deferredRetries;
+    /** Whether the pass that is running is the last one, so that its failures are final. */
+    private volatile boolean finalPass;
+
+    public HistoryListener(Path file, boolean deferredRetries) {
+        this.file = file;
+        this.deferredRetries = deferredRetries;
+        this.finalPass = !deferredRetries;
+    }
+
+    /** Set by SuiteRunner before each pass: true when no rerun pass can follow it. */
+    public void setFinalPass(boolean finalPass) {
+        this.finalPass = finalPass;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, TestHistory.Outcome.PASSED);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, deferred(result) ? TestHistory.Outcome.RETRIED : TestHistory.Outcome.FAILED);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result, TestHistory.Outcome.PASSED);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // a failed attempt that RetryAnalyzer re-runs is reported as skipped
+        if (result.wasRetried() || deferred(result)) record(result, TestHistory.Outcome.RETRIED);
+    }
+
+    /** Merge what was recorded into the history file. */
+    public void save() {
+        List<TestHistory.Run> finished = List.copyOf(runs.values());
+        runs.clear();
+        TestHistory.update(file, finished);
+    }
+
+    /** A failure the deferred rerun will retry; its final outcome is whatever the rerun records. */
+    private boolean deferred(ITestResult result) {
+        return deferredRetries && !finalPass && result.getThrowable() != null
+                && FailureClassifier.classify(result.getThrowable()).retryable();
+    }
+
+    private void record(ITestResult result, TestHistory.Outcome outcome) {
+        String browser = result.getTestContext().getCurrentXmlTest().getParameter("browser");
+        String test = result.getTestClass().getName() + "#" + result.getMethod().getMethodName();
+        long millis = Math.max(0, result.getEndMillis() - result.getStartMillis());
+        runs.merge(browser + '\t' + test, new TestHistory.Run(browser == null ? "" : browser, test, millis, outcome),
+                TestHistory.Run::and);
+    }
+}
@@ -0,0 +1,44 @@
+package org.navadiya.listeners;
+
+import org.navadiya.history.TestHistory;
+import org.navadiya.history.TestOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reorders the test methods of each {@code <test>} by {@link TestOrder}: recent failures and flaky tests first,
+ * then long tests. Methods tied by dependsOnMethods/groups are still scheduled after what they depend on.
+ */
+public class HistoryOrderInterceptor implements IMethodInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(HistoryOrderInterceptor.class);
+
+    private final TestHistory history;
+
+    public HistoryOrderInterceptor(TestHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        String browser = context.getCurrentXmlTest().getParameter("browser");
+        Comparator<String> order = TestOrder.comparator(history, browser);
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparing(HistoryOrderInterceptor::testId, order));
+        if (!ordered.isEmpty()) {
+            log.info("History order for {}: first {}", context.getName(),
+                    ordered.stream().limit(5).map(HistoryOrderInterceptor::testId).toList());
+        }
+        return ordered;
+    }
+
+    private static String testId(IMethodInstance method) {
+        return method.getMethod().getTestClass().getName() + "#" + method.getMethod().getMethodName();
+    }
+}
@@ -7,7 +7,9 @@ import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
 /**
- * Retry analyzer that retries failed tests based on ApplicationConfig.getRerunAttempts().
+ * Retry analyzer that retries failed tests immediately, up to ApplicationConfig.getRerunAttempts() times.
+ * Only failures {@link FailureClassifier} considers retryable are retried; assertion failures are final.
+ * Used when retry.deferred=false; otherwise SuiteRunner reruns retryable failures at the end of the suite.
  */
 public class RetryAnalyzer implements IRetryAnalyzer {
     private static final Logger log = LoggerFactory.getLogger(RetryAnalyzer.class);
@@ -21,6 +23,11 @@ public class RetryAnalyzer implements IRetryAnalyzer {
     @Override
     public boolean retry(ITestResult result) {
         if (maxAttempts <= 0) return false;
+        FailureClassifier.Kind kind = FailureClassifier.classify(result.getThrowable());
+        if (!kind.retryable()) {
+            log.info("Not retrying test {}: {} failure", result.getName(), kind);
+            return false;
+        }
         if (count < maxAttempts) {
             count++;
             log.info("Retrying test {} (attempt {}/{})", result.getName(), count, maxAttempts);
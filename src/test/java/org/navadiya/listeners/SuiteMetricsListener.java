@@ -0,0 +1,64 @@
+package org.navadiya.listeners;
+
+import org.navadiya.config.ApplicationConfig;
+import org.navadiya.metrics.LocatorTimings;
+import org.navadiya.metrics.SuiteReports;
+import org.navadiya.metrics.Timings;
+import org.navadiya.metrics.WaitProfiler;
+import org.navadiya.pages.PageMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Suite listener that resets the latency registry when a suite starts and, when it finishes,
+ * writes the JSON summary, the top time sinks, the wait timeout ranking, the element cache hit rate
+ * and the slowest locators to {@code metrics.output.dir} and attaches them to the suite's tests in Allure.
+ */
+public class SuiteMetricsListener implements ISuiteListener {
+    private static final Logger log = LoggerFactory.getLogger(SuiteMetricsListener.class);
+    private static final String ALLURE_UUID = "ALLURE_UUID";
+
+    @Override
+    public void onStart(ISuite suite) {
+        Timings.reset();
+        WaitProfiler.reset();
+        LocatorTimings.reset();
+        PageMetadata.resetElementCacheStats();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!ApplicationConfig.isMetricsEnabled()) return;
+        String suiteName = suite.getName();
+        List<SuiteReports.Attachment> attachments = new ArrayList<>();
+
+        String sinks = Timings.topSinks(ApplicationConfig.getMetricsTopCount());
+        log.info("Top time sinks for suite {}:\n{}", suiteName, sinks);
+        Timings.writeJson(suiteName + "-latency.json");
+        attachments.add(SuiteReports.Attachment.text("Top time sinks", sinks));
+
+        String waits = WaitProfiler.report(ApplicationConfig.getMetricsTopCount());
+        log.info("Wait time by outcome for suite {}:\n{}", suiteName, waits);
+        attachments.add(SuiteReports.Attachment.text("Wait timeout waste", waits));
+
+        String elementCache = PageMetadata.elementCacheStats();
+        log.info("Suite {}: {}", suiteName, elementCache);
+        attachments.add(SuiteReports.Attachment.text("Element cache", elementCache + System.lineSeparator()));
+
+        String locators = LocatorTimings.report(ApplicationConfig.getMetricsTopCount());
+        log.info("Slowest locators for suite {}:\n{}", suiteName, locators);
+        attachments.add(SuiteReports.Attachment.text("Slowest locators", locators));
+
+        SuiteReports.publish(suiteName, allureUuid(suite), attachments);
+    }
+
+    /** Uuid of the suite's Allure container, which allure-testng keeps as a suite attribute; null without it. */
+    private static String allureUuid(ISuite suite) {
+        return suite.getAttribute(ALLURE_UUID) instanceof String uuid ? uuid : null;
+    }
+}
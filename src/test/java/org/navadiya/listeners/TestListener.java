@@ -1,47 +1,94 @@
 package org.navadiya.listeners;
 
 import io.qameta.allure.Allure;
+import org.navadiya.config.ConfigScope;
+import org.navadiya.driver.BrowserEventCollector;
 import org.navadiya.driver.DriverManager;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import org.navadiya.logging.TestLogBuffer;
+import org.navadiya.util.FrameRecorder;
+import org.navadiya.util.ScreenshotUtils;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
 import java.io.ByteArrayInputStream;
 
-public class TestListener implements ITestListener {
+public class TestListener implements ITestListener, IInvokedMethodListener {
 
     private static final Logger log = LoggerFactory.getLogger(TestListener.class);
 
+    /** Whether the next @BeforeMethod (or test method, without one) on this thread starts a new test. */
+    private static final ThreadLocal<Boolean> NEXT_TEST = ThreadLocal.withInitial(() -> true);
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        // the test log starts with the test's first @BeforeMethod; the previous test's @AfterMethod output is dropped
+        if ((method.isTestMethod() || method.getTestMethod().isBeforeMethodConfiguration()) && NEXT_TEST.get()) {
+            NEXT_TEST.set(false);
+            TestLogBuffer.bind();
+        }
+    }
+
     @Override
     public void onTestStart(ITestResult result) {
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
+        FrameRecorder.discard();
+        BrowserEventCollector.discard();
+        TestLogBuffer.clear();
+        NEXT_TEST.set(true);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        try {
-            WebDriver driver = DriverManager.getDriver();
-            if (driver != null) {
-                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-                // Attach screenshot to Allure report
-                Allure.addAttachment("Screenshot on Failure", "image/png",
-                    new ByteArrayInputStream(screenshot), "png");
+        NEXT_TEST.set(true);
+        // the test's configuration scope is unbound once the test method returns; bind it for the attachments
+        try (ConfigScope.Binding ignored = ConfigScopeListener.bind(result)) {
+            try {
+                WebDriver driver = DriverManager.getDriver();
+                if (driver != null) {
+                    ScreenshotUtils.Screenshot screenshot = ScreenshotUtils.capture(driver);
+                    // Attach screenshot to Allure report
+                    Allure.addAttachment("Screenshot on Failure", screenshot.format().mimeType(),
+                        new ByteArrayInputStream(screenshot.bytes()), screenshot.format().extension());
+                }
+            } catch (Exception e) {
+                log.warn("Could not capture screenshot on failure: {}", e.getMessage(), e);
+            }
+            try {
+                byte[] replay = FrameRecorder.drainAsGif();
+                if (replay != null) {
+                    Allure.addAttachment("Replay before Failure", "image/gif",
+                        new ByteArrayInputStream(replay), "gif");
+                }
+            } catch (Exception e) {
+                log.warn("Could not attach failure replay: {}", e.getMessage(), e);
+            }
+            String browserEvents = BrowserEventCollector.drainSummary();
+            if (browserEvents != null) {
+                Allure.addAttachment("Browser Console & Network", "text/plain", browserEvents, "txt");
+            }
+            // Only this test's log lines: everything logged under its binding since its first @BeforeMethod
+            String logs = TestLogBuffer.drain();
+            if (!logs.isEmpty()) {
+                Allure.addAttachment("Test Log", "text/plain", logs, "log");
             }
-        } catch (Exception e) {
-            log.warn("Could not capture screenshot on failure: {}", e.getMessage(), e);
         }
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
+        FrameRecorder.discard();
+        BrowserEventCollector.discard();
+        TestLogBuffer.clear();
+        NEXT_TEST.set(true);
     }
 
     @Override
@@ -0,0 +1,46 @@
+package org.navadiya.logging;
+
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+/**
+ * Logback appender that formats events into the {@link TestLogBuffer} of the test named by the event's
+ * MDC instead of writing them anywhere; events outside a test are ignored. TestListener attaches the
+ * buffer on failure and drops it otherwise.
+ */
+public class TestLogAppender extends AppenderBase<ILoggingEvent> {
+    private String pattern = "%d{HH:mm:ss.SSS} %-5level %logger{36} - %msg%n%ex";
+    private int maxLines = 500;
+    private PatternLayout layout;
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    @Override
+    public void start() {
+        layout = new PatternLayout();
+        layout.setContext(getContext());
+        layout.setPattern(pattern);
+        layout.start();
+        TestLogBuffer.setCapacity(maxLines);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (layout != null) layout.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String id = event.getMDCPropertyMap().get(TestLogBuffer.MDC_KEY);
+        if (id != null) TestLogBuffer.append(id, layout.doLayout(event));
+    }
+}
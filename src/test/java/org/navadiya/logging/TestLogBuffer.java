@@ -0,0 +1,87 @@
+package org.navadiya.logging;
+
+import org.slf4j.MDC;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded buffers of formatted log lines, one per running test. {@link #bind()} opens a buffer for the
+ * test on the current thread and stores its id under the {@value #MDC_KEY} MDC key; {@link TestLogAppender}
+ * routes each event to the buffer named by the event's MDC, so background work that copies the MDC (the
+ * frame recorder) lands in the same test's log. Events without a bound test (runner, listeners between
+ * tests) are not buffered. The oldest lines are dropped once the capacity configured on
+ * {@link TestLogAppender} is reached.
+ */
+public final class TestLogBuffer {
+    /** MDC key holding the id of the test buffer a thread logs into. */
+    public static final String MDC_KEY = "testLog";
+
+    private static volatile int capacity = 500;
+
+    private static final Map<String, Lines> BUFFERS = new ConcurrentHashMap<>();
+    private static final AtomicLong SEQ = new AtomicLong();
+
+    private static final class Lines {
+        final Deque<String> lines = new ArrayDeque<>();
+        int dropped;
+    }
+
+    private TestLogBuffer() {}
+
+    static void setCapacity(int lines) {
+        capacity = Math.max(1, lines);
+    }
+
+    static void append(String id, String line) {
+        Lines buffer = BUFFERS.get(id);
+        if (buffer == null) return;
+        synchronized (buffer) {
+            while (buffer.lines.size() >= capacity) {
+                buffer.lines.removeFirst();
+                buffer.dropped++;
+            }
+            buffer.lines.addLast(line);
+        }
+    }
+
+    /** Start an empty buffer for the test on the current thread, dropping whatever it was bound to before. */
+    public static void bind() {
+        clear();
+        String id = Thread.currentThread().getName() + "-" + SEQ.incrementAndGet();
+        BUFFERS.put(id, new Lines());
+        MDC.put(MDC_KEY, id);
+    }
+
+    /** Drop the current thread's buffer and stop buffering its output until the next {@link #bind()}. */
+    public static void clear() {
+        String id = MDC.get(MDC_KEY);
+        if (id == null) return;
+        BUFFERS.remove(id);
+        MDC.remove(MDC_KEY);
+    }
+
+    /**
+     * Return the lines buffered for the current thread's test as one text block and unbind it.
+     *
+     * @return buffered log text, or an empty string when nothing was logged or no test is bound
+     */
+    public static String drain() {
+        String id = MDC.get(MDC_KEY);
+        Lines buffer = id == null ? null : BUFFERS.get(id);
+        clear();
+        if (buffer == null) return "";
+        synchronized (buffer) {
+            if (buffer.lines.isEmpty() && buffer.dropped == 0) return "";
+            StringBuilder sb = new StringBuilder();
+            if (buffer.dropped > 0) {
+                sb.append("... ").append(buffer.dropped).append(" earlier lines dropped ...").append(System.lineSeparator());
+            }
+            for (String line : buffer.lines) sb.append(line);
+            return sb.toString();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.testng.ITestContext;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import java.time.Duration;
+import org.navadiya.util.FrameRecorder;
 import org.navadiya.util.WaitUtils;
 
 /**
@@ -38,10 +39,14 @@ public class BaseTest {
         if (DriverManager.getDriver() == null) {
             DriverManager.createDriver("chrome");
         }
+        // start the failure replay ring buffer (no-op unless replay.enabled=true)
+        FrameRecorder.start(DriverManager.getDriver());
     }
 
     @AfterMethod(alwaysRun = true)
     public void tearDown() {
+        // keep buffered frames so TestListener can still attach them on failure
+        FrameRecorder.stop();
         DriverManager.quitDriver();
     }
 
@@ -69,9 +74,6 @@ public class BaseTest {
      * Default explicit wait timeout derived from application.properties (app.timeout.seconds)
      */
     protected Duration defaultTimeout() {
-        String t = ApplicationConfig.getProperty("app.timeout.seconds");
-        int seconds = 15;
-        try { if (t != null) seconds = Integer.parseInt(t); } catch (Exception ignored) {}
-        return Duration.ofSeconds(seconds);
+        return Duration.ofSeconds(ApplicationConfig.getTimeoutSeconds());
     }
 }